@@ -0,0 +1,36 @@
+package com.Jwt.demo.service;
+
+import org.springframework.test.util.ReflectionTestUtils;
+
+/**
+ * Builds the services under test without a Spring context or database.
+ */
+final class BenchmarkFixtures {
+
+	static final String SECRET = "benchmark-secret";
+
+	private BenchmarkFixtures() {
+	}
+
+	/**
+	 * JwtUtil signing with ES256 (keys held in memory), or with the legacy HS256 secret when es256 is false.
+	 */
+	static JwtUtil jwtUtil(boolean es256) {
+		JwtUtil jwtUtil = new JwtUtil();
+		jwtUtil.setSecret(SECRET);
+		jwtUtil.setJwtExpirationMs(3600000L);
+		if (es256) {
+			ReflectionTestUtils.setField(jwtUtil, "signingKeys", SigningKeyFixtures.inMemory());
+		}
+		return jwtUtil;
+	}
+
+	static TokenBlacklistService tokenBlacklistService(JwtUtil jwtUtil, RevocationBackend backend, long expectedInsertions) {
+		TokenBlacklistService service = new TokenBlacklistService();
+		ReflectionTestUtils.setField(service, "jwtUtil", jwtUtil);
+		ReflectionTestUtils.setField(service, "revocationBackend", backend);
+		ReflectionTestUtils.setField(service, "expectedInsertions", expectedInsertions);
+		service.init();
+		return service;
+	}
+}
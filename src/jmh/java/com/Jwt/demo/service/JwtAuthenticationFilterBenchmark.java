@@ -0,0 +1,96 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.repository.UserRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * One full JwtAuthenticationFilter pass for an ES256 token, with mock servlet objects.
+ *
+ * cached=true reuses the verified-token cache (a repeat request); cached=false verifies the
+ * signature every time (a first request). metrics=false vs true is the cost of AuthMetrics.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtAuthenticationFilterBenchmark {
+
+	private static final FilterChain CHAIN = (request, response) -> { };
+
+	@Param({"true", "false"})
+	public boolean cached;
+
+	@Param({"true", "false"})
+	public boolean metrics;
+
+	private JwtAuthenticationFilter filter;
+	private VerifiedTokenCache verifiedTokenCache;
+	private String authorization;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		JwtUtil jwtUtil = BenchmarkFixtures.jwtUtil(true);
+
+		UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+		when(userRepository.findTokenVersionById(anyLong())).thenReturn(Optional.of(0));
+		TokenVersionService tokenVersionService = new TokenVersionService();
+		ReflectionTestUtils.setField(tokenVersionService, "userRepository", userRepository);
+
+		verifiedTokenCache = new VerifiedTokenCache();
+		filter = new JwtAuthenticationFilter();
+		ReflectionTestUtils.setField(filter, "tokenBlacklistService",
+				BenchmarkFixtures.tokenBlacklistService(jwtUtil, new LocalRevocationBackend(), 100000));
+		ReflectionTestUtils.setField(filter, "jwtUtil", jwtUtil);
+		ReflectionTestUtils.setField(filter, "verifiedTokenCache", verifiedTokenCache);
+		ReflectionTestUtils.setField(filter, "tokenVersionService", tokenVersionService);
+		ReflectionTestUtils.setField(filter, "metrics", new AuthMetrics(new SimpleMeterRegistry(), metrics));
+
+		token = jwtUtil.generateToken(new AuthenticatedUser(1L, "alice", "", 0, false));
+		authorization = "Bearer " + token;
+	}
+
+	@Benchmark
+	public Authentication filterPass() throws ServletException, IOException {
+		if (!cached) {
+			verifiedTokenCache.invalidate(token);
+		}
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/me");
+		request.addHeader("Authorization", authorization);
+		try {
+			filter.doFilter(request, new MockHttpServletResponse(), CHAIN);
+			return SecurityContextHolder.getContext().getAuthentication();
+		} finally {
+			SecurityContextHolder.clearContext();
+		}
+	}
+}
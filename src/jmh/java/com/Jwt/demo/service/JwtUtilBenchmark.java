@@ -0,0 +1,60 @@
+package com.Jwt.demo.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Token generation and validation, for the ES256 keys and the legacy HS256 secret.
+ * legacyValidateSequence is what JwtAuthenticationFilter did before ParsedToken
+ * (extractUsername, then validateToken, which parsed the token twice more).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtUtilBenchmark {
+
+	@Param({"ES256", "HS256"})
+	public String algorithm;
+
+	private JwtUtil jwtUtil;
+	private AuthenticatedUser user;
+	private String token;
+
+	@Setup
+	public void setUp() {
+		jwtUtil = BenchmarkFixtures.jwtUtil("ES256".equals(algorithm));
+		user = new AuthenticatedUser(1L, "alice", "", 0, false);
+		token = jwtUtil.generateToken(user);
+	}
+
+	@Benchmark
+	public String generate() {
+		return jwtUtil.generateToken(user);
+	}
+
+	@Benchmark
+	public ParsedToken parseOnce() {
+		return jwtUtil.parse(token);
+	}
+
+	@Benchmark
+	public boolean legacyValidateSequence() {
+		String username = jwtUtil.extractUsername(token);
+		return username.equals(jwtUtil.extractUsername(token)) && !jwtUtil.extractExpiration(token).before(new Date());
+	}
+}
@@ -0,0 +1,70 @@
+package com.Jwt.demo.service;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bloom filter filled to its capacity: lookup speed for tokens that are not in it, plus the
+ * measured false positive rate (falsePositives / lookups in the JSON) and its size.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx2g"})
+@State(Scope.Benchmark)
+public class RevocationBloomFilterBenchmark {
+
+	private static final int PROBES = 1 << 16;
+
+	@Param({"100000", "1000000", "10000000"})
+	public long capacity;
+
+	private RevocationBloomFilter filter;
+	private final byte[][] probes = new byte[PROBES][];
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		filter = new RevocationBloomFilter(capacity, 0.01);
+		for (long i = 0; i < capacity; i++) {
+			filter.put(TokenDigests.sha256("revoked-" + i));
+		}
+		for (int i = 0; i < PROBES; i++) {
+			probes[i] = TokenDigests.sha256("live-" + i);
+		}
+		System.out.printf("%ncapacity=%d bits=%d (%d KiB) hashes=%d%n",
+				capacity, filter.getBitCount(), filter.getBitCount() / 8 / 1024, filter.getHashCount());
+	}
+
+	@State(Scope.Thread)
+	@AuxCounters(AuxCounters.Type.EVENTS)
+	public static class Counters {
+		public long lookups;
+		public long falsePositives;
+		private int next;
+	}
+
+	@Benchmark
+	public boolean mightContainMissing(Counters counters) {
+		counters.next = (counters.next + 1) & (PROBES - 1);
+		boolean hit = filter.mightContain(probes[counters.next]);
+		counters.lookups++;
+		if (hit) {
+			counters.falsePositives++;
+		}
+		return hit;
+	}
+}
@@ -0,0 +1,136 @@
+package com.Jwt.demo.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Revocation lookups with 10^3 to 10^7 revoked tokens, from 8 threads at once.
+ *
+ * - lookupLive: a token that was never revoked (the common case, answered by the Bloom filter),
+ * - lookupRevoked: a revoked token (Bloom filter hit, then the map),
+ * - readWrite: 7 threads looking up while 1 thread keeps revoking (lock + filter updates).
+ * Use -p entries=10000,1000000 for the sizes in between.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+@State(Scope.Benchmark)
+public class TokenBlacklistServiceBenchmark {
+
+	private static final int SAMPLES = 4096;
+
+	@Param({"1000", "100000", "10000000"})
+	public int entries;
+
+	private TokenBlacklistService service;
+	private final String[] liveTokens = new String[SAMPLES];
+	private final String[] revokedTokens = new String[SAMPLES];
+	private final String[] tokensToRevoke = new String[SAMPLES];
+
+	@Setup(Level.Trial)
+	public void setUp() {
+		long expiresAt = System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1);
+		Map<String, Long> preloaded = new HashMap<>(entries * 2);
+		for (int i = 0; i < entries; i++) {
+			String token = "revoked-" + i;
+			preloaded.put(TokenDigests.sha256Base64(token), expiresAt);
+			if (i < SAMPLES) {
+				revokedTokens[i] = token;
+			}
+		}
+		for (int i = 0; i < SAMPLES; i++) {
+			liveTokens[i] = "live-" + i;
+			if (revokedTokens[i] == null) {
+				revokedTokens[i] = revokedTokens[i % entries];
+			}
+		}
+
+		JwtUtil jwtUtil = BenchmarkFixtures.jwtUtil(false);
+		for (int i = 0; i < SAMPLES; i++) {
+			tokensToRevoke[i] = jwtUtil.generateToken("user-" + i);
+		}
+		service = BenchmarkFixtures.tokenBlacklistService(jwtUtil, new PreloadedBackend(preloaded), entries);
+		// Loads all entries the same way revocations from other instances arrive
+		service.syncFromBackend();
+	}
+
+	@State(Scope.Thread)
+	public static class Cursor {
+		private int next;
+
+		int next() {
+			next = (next + 1) & (SAMPLES - 1);
+			return next;
+		}
+	}
+
+	@Benchmark
+	@Threads(8)
+	public boolean lookupLive(Cursor cursor) {
+		return service.isTokenBlacklisted(liveTokens[cursor.next()]);
+	}
+
+	@Benchmark
+	@Threads(8)
+	public boolean lookupRevoked(Cursor cursor) {
+		return service.isTokenBlacklisted(revokedTokens[cursor.next()]);
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(7)
+	public boolean readWriteLookup(Cursor cursor) {
+		return service.isTokenBlacklisted(liveTokens[cursor.next()]);
+	}
+
+	@Benchmark
+	@Group("readWrite")
+	@GroupThreads(1)
+	public void readWriteRevoke(Cursor cursor) {
+		service.blacklistToken(tokensToRevoke[cursor.next()]);
+	}
+
+	// Hands over the preloaded entries on the first poll, like a backend with a backlog
+	private static final class PreloadedBackend implements RevocationBackend {
+		private Map<String, Long> pending;
+
+		PreloadedBackend(Map<String, Long> pending) {
+			this.pending = pending;
+		}
+
+		@Override
+		public void publish(String tokenId, long expiresAtMs) {
+		}
+
+		@Override
+		public Map<String, Long> pollNew() {
+			Map<String, Long> polled = pending;
+			pending = Collections.emptyMap();
+			return polled;
+		}
+
+		@Override
+		public void purgeExpired(long nowMs) {
+		}
+	}
+}
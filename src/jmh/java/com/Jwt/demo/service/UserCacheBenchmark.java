@@ -0,0 +1,78 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.User;
+import com.Jwt.demo.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * UserCache lookups from 8 threads. With 1000 users everything is cached; with 100000 users
+ * (over the default max-size of 10000) most lookups miss and go to the (mocked, instant) repository,
+ * so the difference is the cost of the lock and LRU bookkeeping, not of the database.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserCacheBenchmark {
+
+	@Param({"1000", "100000"})
+	public int users;
+
+	private UserCache userCache;
+
+	@Setup
+	public void setUp() {
+		UserRepository userRepository = mock(UserRepository.class, withSettings().stubOnly());
+		when(userRepository.findById(anyLong())).thenAnswer(i -> Optional.of(user(i.getArgument(0))));
+		when(userRepository.findByUsername(anyString())).thenAnswer(i -> {
+			String username = i.getArgument(0);
+			return Optional.of(user(Long.parseLong(username.substring("user-".length()))));
+		});
+		userCache = new UserCache();
+		ReflectionTestUtils.setField(userCache, "userRepository", userRepository);
+	}
+
+	private static User user(long id) {
+		User user = new User();
+		user.setId(id);
+		user.setUsername("user-" + id);
+		user.setEmail("user-" + id + "@example.com");
+		return user;
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Optional<User> findById() {
+		return userCache.findById((long) ThreadLocalRandom.current().nextInt(1, users + 1));
+	}
+
+	@Benchmark
+	@Threads(8)
+	public Optional<User> findByUsername() {
+		return userCache.findByUsername("user-" + ThreadLocalRandom.current().nextInt(1, users + 1));
+	}
+}
@@ -0,0 +1,80 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.DemoApplication;
+import com.Jwt.demo.Model.User;
+import com.Jwt.demo.payload.UserResponse;
+import com.Jwt.demo.repository.UserRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One user read the way /me and /users/{id} used to do it (whole entity, mapped afterwards)
+ * against the column projection they use now, on the embedded database with 1000 users.
+ * Neither goes through UserCache, so the difference is the query and the entity hydration.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserReadBenchmark {
+
+	private static final int USERS = 1000;
+
+	private ConfigurableApplicationContext context;
+	private UserRepository userRepository;
+	private long[] ids;
+
+	@Setup
+	public void setUp() {
+		context = new SpringApplicationBuilder(DemoApplication.class)
+				.run(
+						"--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:user-read-benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+						"--spring.jpa.hibernate.ddl-auto=update",
+						"--logging.level.root=WARN");
+		userRepository = context.getBean(UserRepository.class);
+
+		List<User> users = new ArrayList<>(USERS);
+		for (int i = 0; i < USERS; i++) {
+			users.add(new User("bench-" + i, "bench-" + i + "@example.com", "$2a$12$notARealHashJustTheRightLengthForTheColumn0123456789"));
+		}
+		ids = userRepository.saveAll(users).stream().mapToLong(User::getId).toArray();
+	}
+
+	@TearDown
+	public void tearDown() {
+		context.close();
+	}
+
+	@Benchmark
+	public UserResponse entity() {
+		return userRepository.findById(randomId()).map(UserResponse::from).orElseThrow(IllegalStateException::new);
+	}
+
+	@Benchmark
+	public UserResponse projection() {
+		return userRepository.findResponseById(randomId()).orElseThrow(IllegalStateException::new);
+	}
+
+	private long randomId() {
+		return ids[ThreadLocalRandom.current().nextInt(ids.length)];
+	}
+}
@@ -0,0 +1,99 @@
+package com.Jwt.demo.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Minimal blocking HTTP client. HttpURLConnection keeps connections alive per thread
+ * as long as every response body is read to the end, which this class always does.
+ */
+final class HttpClient {
+
+	static final class Response {
+		final int status;
+		final String body;
+
+		Response(int status, String body) {
+			this.status = status;
+			this.body = body;
+		}
+
+		boolean isOk() {
+			return status >= 200 && status < 300;
+		}
+	}
+
+	private final String baseUrl;
+
+	HttpClient(String baseUrl) {
+		this.baseUrl = baseUrl;
+	}
+
+	Response get(String path, String token) throws IOException {
+		return send("GET", path, token, null, null);
+	}
+
+	Response postForm(String path, String token, String... nameValues) throws IOException {
+		return send("POST", path, token, "application/x-www-form-urlencoded", form(nameValues));
+	}
+
+	private static String form(String... nameValues) {
+		StringBuilder form = new StringBuilder();
+		for (int i = 0; i < nameValues.length; i += 2) {
+			if (form.length() > 0) {
+				form.append('&');
+			}
+			form.append(encode(nameValues[i])).append('=').append(encode(nameValues[i + 1]));
+		}
+		return form.toString();
+	}
+
+	private Response send(String method, String path, String token, String contentType, String body) throws IOException {
+		HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+		connection.setRequestMethod(method);
+		connection.setConnectTimeout(5000);
+		connection.setReadTimeout(60000);
+		if (token != null) {
+			connection.setRequestProperty("Authorization", "Bearer " + token);
+		}
+		if (body != null) {
+			byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+			connection.setDoOutput(true);
+			connection.setRequestProperty("Content-Type", contentType);
+			connection.setFixedLengthStreamingMode(bytes.length);
+			try (OutputStream out = connection.getOutputStream()) {
+				out.write(bytes);
+			}
+		}
+		int status = connection.getResponseCode();
+		InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+		return new Response(status, in == null ? "" : readFully(in));
+	}
+
+	private static String readFully(InputStream in) throws IOException {
+		try (InputStream body = in) {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			byte[] buffer = new byte[8192];
+			int read;
+			while ((read = body.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			return new String(out.toByteArray(), StandardCharsets.UTF_8);
+		}
+	}
+
+	private static String encode(String value) {
+		try {
+			return URLEncoder.encode(value, "UTF-8");
+		} catch (UnsupportedEncodingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+}
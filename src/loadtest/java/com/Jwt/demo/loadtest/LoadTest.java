@@ -0,0 +1,115 @@
+package com.Jwt.demo.loadtest;
+
+import com.Jwt.demo.DemoApplication;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.servlet.context.ServletWebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layman terms:
+ * Starts the app on an in-memory database (or points at a running one with --target=http://host:port),
+ * lets N simulated users hammer it for a while and prints requests per second and latency percentiles
+ * per endpoint. Results are also written as JSON (target/loadtest-result.json by default).
+ *
+ * Each simulated user repeats a session: sometimes register a new account (--register-ratio),
+ * log in, call /api/me (--me-per-session) and /api/users (--users-per-session), log out.
+ *
+ * Run: mvn -P loadtest verify -Dloadtest.args="users=64 duration=60"
+ * Options (name=value, leading "--" optional): users, duration, warmup (seconds), me-per-session,
+ * users-per-session, register-ratio, think-ms, target, out. Any other name=value is passed to the
+ * embedded app as a property, e.g. app.security.bcrypt.strength=12.
+ *
+ * Platform vs. virtual request threads (Java 21+), same load, compare the two result files:
+ *   -Dloadtest.args="users=1000 app.threads.virtual=false out=target/loadtest-platform.json"
+ *   -Dloadtest.args="users=1000 app.threads.virtual=true out=target/loadtest-virtual.json"
+ */
+public class LoadTest {
+
+	private static final Logger log = LoggerFactory.getLogger(LoadTest.class);
+
+	public static void main(String[] args) throws Exception {
+		Map<String, String> options = new LinkedHashMap<>();
+		Map<String, String> appProperties = new LinkedHashMap<>();
+		for (String arg : args) {
+			String option = arg.startsWith("--") ? arg.substring(2) : arg;
+			if (!option.contains("=")) {
+				throw new IllegalArgumentException("Expected name=value, got " + arg);
+			}
+			String name = option.substring(0, option.indexOf('='));
+			String value = option.substring(option.indexOf('=') + 1);
+			(Scenario.OPTIONS.contains(name) ? options : appProperties).put(name, value);
+		}
+		Scenario scenario = Scenario.from(options);
+
+		ConfigurableApplicationContext app = null;
+		String baseUrl = options.get("target");
+		if (baseUrl == null) {
+			app = startApp(appProperties);
+			baseUrl = "http://localhost:" + ((ServletWebServerApplicationContext) app).getWebServer().getPort();
+		}
+		try {
+			Stats stats = run(scenario, baseUrl);
+			stats.print(System.out);
+			File out = new File(options.getOrDefault("out", "target/loadtest-result.json"));
+			out.getAbsoluteFile().getParentFile().mkdirs();
+			Map<String, Object> report = new LinkedHashMap<>();
+			report.put("scenario", scenario.toMap());
+			report.put("target", options.containsKey("target") ? baseUrl : "embedded");
+			report.put("appProperties", appProperties);
+			report.put("operations", stats.toMap());
+			new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(out, report);
+			log.info("Results written to {}", out.getAbsolutePath());
+		} finally {
+			if (app != null) {
+				app.close();
+			}
+		}
+	}
+
+	private static ConfigurableApplicationContext startApp(Map<String, String> appProperties) {
+		// Running from the plain classpath would otherwise enable devtools restarts
+		System.setProperty("spring.devtools.restart.enabled", "false");
+		List<String> args = new ArrayList<>();
+		args.add("--spring.config.name=loadtest");
+		for (Map.Entry<String, String> property : appProperties.entrySet()) {
+			args.add("--" + property.getKey() + "=" + property.getValue());
+		}
+		return new SpringApplicationBuilder(DemoApplication.class).run(args.toArray(new String[0]));
+	}
+
+	private static Stats run(Scenario scenario, String baseUrl) throws InterruptedException {
+		Stats stats = new Stats();
+		ExecutorService users = Executors.newFixedThreadPool(scenario.users);
+		List<VirtualUser> virtualUsers = new ArrayList<>();
+		for (int i = 0; i < scenario.users; i++) {
+			VirtualUser user = new VirtualUser(i, scenario, new HttpClient(baseUrl), stats);
+			virtualUsers.add(user);
+			users.execute(user);
+		}
+		log.info("{} users against {}: {}s warm-up, {}s measured", scenario.users, baseUrl,
+				scenario.warmupSeconds, scenario.durationSeconds);
+		TimeUnit.SECONDS.sleep(scenario.warmupSeconds);
+		stats.start();
+		TimeUnit.SECONDS.sleep(scenario.durationSeconds);
+		stats.stop();
+		for (VirtualUser user : virtualUsers) {
+			user.stop();
+		}
+		users.shutdown();
+		users.awaitTermination(30, TimeUnit.SECONDS);
+		return stats;
+	}
+}
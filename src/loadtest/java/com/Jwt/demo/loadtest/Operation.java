@@ -0,0 +1,5 @@
+package com.Jwt.demo.loadtest;
+
+enum Operation {
+	REGISTER, LOGIN, ME, USERS, LOGOUT
+}
@@ -0,0 +1,51 @@
+package com.Jwt.demo.loadtest;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Load test settings (see LoadTest for the command line).
+ */
+final class Scenario {
+
+	static final Set<String> OPTIONS = new HashSet<>(Arrays.asList(
+			"users", "duration", "warmup", "me-per-session", "users-per-session", "register-ratio",
+			"think-ms", "target", "out"));
+
+	final int users;
+	final int durationSeconds;
+	final int warmupSeconds;
+	final int mePerSession;
+	final int usersPerSession;
+	final double registerRatio;
+	final long thinkMs;
+
+	private Scenario(Map<String, String> options) {
+		users = Integer.parseInt(options.getOrDefault("users", "32"));
+		durationSeconds = Integer.parseInt(options.getOrDefault("duration", "30"));
+		warmupSeconds = Integer.parseInt(options.getOrDefault("warmup", "10"));
+		mePerSession = Integer.parseInt(options.getOrDefault("me-per-session", "10"));
+		usersPerSession = Integer.parseInt(options.getOrDefault("users-per-session", "2"));
+		registerRatio = Double.parseDouble(options.getOrDefault("register-ratio", "0.05"));
+		thinkMs = Long.parseLong(options.getOrDefault("think-ms", "0"));
+	}
+
+	static Scenario from(Map<String, String> options) {
+		return new Scenario(options);
+	}
+
+	Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		map.put("users", users);
+		map.put("durationSeconds", durationSeconds);
+		map.put("warmupSeconds", warmupSeconds);
+		map.put("mePerSession", mePerSession);
+		map.put("usersPerSession", usersPerSession);
+		map.put("registerRatio", registerRatio);
+		map.put("thinkMs", thinkMs);
+		return map;
+	}
+}
@@ -0,0 +1,105 @@
+package com.Jwt.demo.loadtest;
+
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.PrintStream;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency histograms (microseconds) and error counts per operation, recorded only
+ * between start() and stop() so the warm-up does not count.
+ */
+final class Stats {
+
+	private static final long MAX_LATENCY_MICROS = TimeUnit.MINUTES.toMicros(2);
+
+	private final Map<Operation, Histogram> latencies = new EnumMap<>(Operation.class);
+	private final Map<Operation, ConcurrentMap<String, LongAdder>> errors = new EnumMap<>(Operation.class);
+	private volatile boolean recording;
+	private volatile long startedNanos;
+	private volatile long stoppedNanos;
+
+	Stats() {
+		for (Operation operation : Operation.values()) {
+			latencies.put(operation, new ConcurrentHistogram(MAX_LATENCY_MICROS, 3));
+			errors.put(operation, new ConcurrentHashMap<>());
+		}
+	}
+
+	void start() {
+		startedNanos = System.nanoTime();
+		recording = true;
+	}
+
+	void stop() {
+		recording = false;
+		stoppedNanos = System.nanoTime();
+	}
+
+	void success(Operation operation, long startNanos) {
+		if (recording) {
+			long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - startNanos);
+			latencies.get(operation).recordValue(Math.min(micros, MAX_LATENCY_MICROS));
+		}
+	}
+
+	// reason is the HTTP status, or the exception type for I/O failures
+	void error(Operation operation, String reason) {
+		if (recording) {
+			errors.get(operation).computeIfAbsent(reason, r -> new LongAdder()).increment();
+		}
+	}
+
+	private double seconds() {
+		return (stoppedNanos - startedNanos) / 1e9;
+	}
+
+	void print(PrintStream out) {
+		out.printf("%n%-9s %10s %10s %9s %9s %9s %9s  %s%n", "operation", "count", "per sec", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors");
+		long total = 0;
+		for (Operation operation : Operation.values()) {
+			Histogram histogram = latencies.get(operation);
+			total += histogram.getTotalCount();
+			out.printf("%-9s %10d %10.1f %9.2f %9.2f %9.2f %9.2f  %s%n", operation.name().toLowerCase(),
+					histogram.getTotalCount(), histogram.getTotalCount() / seconds(),
+					millis(histogram, 50), millis(histogram, 95), millis(histogram, 99),
+					histogram.getMaxValue() / 1000.0, errorCounts(operation));
+		}
+		out.printf("%-9s %10d %10.1f%n%n", "total", total, total / seconds());
+	}
+
+	Map<String, Object> toMap() {
+		Map<String, Object> map = new LinkedHashMap<>();
+		for (Operation operation : Operation.values()) {
+			Histogram histogram = latencies.get(operation);
+			Map<String, Object> stats = new LinkedHashMap<>();
+			stats.put("count", histogram.getTotalCount());
+			stats.put("perSecond", histogram.getTotalCount() / seconds());
+			stats.put("p50Ms", millis(histogram, 50));
+			stats.put("p95Ms", millis(histogram, 95));
+			stats.put("p99Ms", millis(histogram, 99));
+			stats.put("maxMs", histogram.getMaxValue() / 1000.0);
+			stats.put("errors", errorCounts(operation));
+			map.put(operation.name().toLowerCase(), stats);
+		}
+		return map;
+	}
+
+	private Map<String, Long> errorCounts(Operation operation) {
+		Map<String, Long> counts = new TreeMap<>();
+		errors.get(operation).forEach((reason, count) -> counts.put(reason, count.sum()));
+		return counts;
+	}
+
+	private static double millis(Histogram histogram, double percentile) {
+		return histogram.getValueAtPercentile(percentile) / 1000.0;
+	}
+}
@@ -0,0 +1,113 @@
+package com.Jwt.demo.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One simulated client, repeating sessions until stopped. Each virtual user has its own
+ * accounts (lt-<user>-<n>), so users never log each other out.
+ */
+final class VirtualUser implements Runnable {
+
+	private static final ObjectMapper JSON = new ObjectMapper();
+	private static final String PASSWORD = "loadtest-password";
+
+	private final int id;
+	private final Scenario scenario;
+	private final HttpClient http;
+	private final Stats stats;
+	private volatile boolean stopped;
+	private int accounts;
+
+	VirtualUser(int id, Scenario scenario, HttpClient http, Stats stats) {
+		this.id = id;
+		this.scenario = scenario;
+		this.http = http;
+		this.stats = stats;
+	}
+
+	void stop() {
+		stopped = true;
+	}
+
+	@Override
+	public void run() {
+		String username = register();
+		while (!stopped) {
+			if (username == null || ThreadLocalRandom.current().nextDouble() < scenario.registerRatio) {
+				String registered = register();
+				username = registered != null ? registered : username;
+			}
+			if (username != null) {
+				session(username);
+			}
+		}
+	}
+
+	private void session(String username) {
+		HttpClient.Response login = call(Operation.LOGIN, null, "/api/auth/login", "username", username, "password", PASSWORD);
+		if (login == null) {
+			return;
+		}
+		String token;
+		String refreshToken;
+		try {
+			JsonNode body = JSON.readTree(login.body);
+			token = body.get("token").asText();
+			refreshToken = body.get("refreshToken").asText();
+		} catch (IOException | NullPointerException e) {
+			return;
+		}
+		for (int i = 0; i < scenario.mePerSession && !stopped; i++) {
+			call(Operation.ME, token, "/api/me");
+		}
+		for (int i = 0; i < scenario.usersPerSession && !stopped; i++) {
+			call(Operation.USERS, token, "/api/users?size=50");
+		}
+		call(Operation.LOGOUT, token, "/api/auth/logout", "refreshToken", refreshToken);
+	}
+
+	// Registered accounts may list users, so /api/users is part of the mix
+	private String register() {
+		String username = "lt-" + id + "-" + accounts++;
+		HttpClient.Response response = call(Operation.REGISTER, null, "/api/auth/register",
+				"username", username, "email", username + "@loadtest.local", "password", PASSWORD, "canManageUsers", "true");
+		return response != null ? username : null;
+	}
+
+	private HttpClient.Response call(Operation operation, String token, String path, String... form) {
+		think();
+		long started = System.nanoTime();
+		try {
+			HttpClient.Response response;
+			if (operation == Operation.ME || operation == Operation.USERS) {
+				response = http.get(path, token);
+			} else {
+				response = http.postForm(path, token, form);
+			}
+			if (!response.isOk()) {
+				stats.error(operation, String.valueOf(response.status));
+				return null;
+			}
+			stats.success(operation, started);
+			return response;
+		} catch (IOException e) {
+			stats.error(operation, e.getClass().getSimpleName());
+			return null;
+		}
+	}
+
+	private void think() {
+		if (scenario.thinkMs > 0) {
+			try {
+				Thread.sleep(scenario.thinkMs);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				stopped = true;
+			}
+		}
+	}
+}
@@ -9,9 +9,11 @@ import org.springframework.boot.CommandLineRunner;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.security.crypto.password.PasswordEncoder;
 
 @SpringBootApplication
+@EnableScheduling
 public class DemoApplication {
 
 	@Autowired
@@ -20,7 +22,7 @@ public class DemoApplication {
 	@Value("${app.jwt.secret:change-me-secret}")
 	private String jwtSecret;
 
-	@Value("${app.jwt.expiration-ms:86400000}")
+	@Value("${app.jwt.expiration-ms:900000}")
 	private long jwtExpirationMs;
 
 	public static void main(String[] args) {
@@ -2,6 +2,7 @@ package com.Jwt.demo.Model;
 
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.BatchSize;
 
 import javax.persistence.*;
 import java.math.BigDecimal;
@@ -11,7 +12,12 @@ import java.util.Set;
 @Getter
 @Setter
 @Entity
-@Table(name = "projects")
+// Search and budget statistics filter by client or location plus a start date range
+@Table(name = "projects", indexes = {
+        @Index(name = "idx_projects_client_start_date", columnList = "client, start_date"),
+        @Index(name = "idx_projects_location_start_date", columnList = "location, start_date"),
+        @Index(name = "idx_projects_start_date", columnList = "start_date")
+})
 public class Project {
 
 
@@ -30,10 +36,16 @@ public class Project {
 
     private String client;
 
+    @Column(name = "start_date")
     private LocalDate startDate;
+
+    @Column(name = "end_date")
     private LocalDate endDate;
 
+    // Lists load assignees with a fetch join (ProjectRepository); anywhere else the sets of up to
+    // 100 projects in the persistence context are initialized together instead of one query each
     @ManyToMany
+    @BatchSize(size = 100)
     @JoinTable(
             name = "project_users",
             joinColumns = @JoinColumn(name = "project_id"),
@@ -0,0 +1,35 @@
+package com.Jwt.demo.Model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * One logged-out token, shared between app instances.
+ * tokenId is the SHA-256 digest of the token, never the token itself.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "revoked_tokens", indexes = @Index(name = "idx_revoked_tokens_expires_at", columnList = "expires_at"))
+public class RevokedToken {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "token_id", nullable = false, unique = true, length = 64)
+    private String tokenId;
+
+    // Epoch millis of the token's own expiry; the row is useless after that
+    @Column(name = "expires_at", nullable = false)
+    private long expiresAt;
+
+    public RevokedToken() {}
+
+    public RevokedToken(String tokenId, long expiresAt) {
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+}
@@ -0,0 +1,49 @@
+package com.Jwt.demo.Model;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import javax.persistence.*;
+
+/**
+ * An ES256 key pair used to sign access tokens. Kept in the database so every instance signs
+ * with, and can verify, the same keys. The public half is published at /.well-known/jwks.json.
+ */
+@Getter
+@Setter
+@Entity
+@Table(name = "signing_keys", indexes = {
+        @Index(name = "idx_signing_keys_created_at", columnList = "created_at")
+})
+public class SigningKey {
+
+    // The "kid" header of tokens signed with this key
+    @Id
+    @Column(length = 32)
+    private String kid;
+
+    @Column(nullable = false, length = 16)
+    private String algorithm;
+
+    // X.509 (SubjectPublicKeyInfo) encoding
+    @Column(name = "public_key", nullable = false, length = 512)
+    private byte[] publicKey;
+
+    // PKCS#8 encoding, AES-GCM encrypted with app.jwt.keys.kek (see SigningKeyCipher)
+    @Column(name = "private_key", nullable = false, length = 1024)
+    private byte[] privateKey;
+
+    // Epoch millis
+    @Column(name = "created_at", nullable = false)
+    private long createdAt;
+
+    public SigningKey() {}
+
+    public SigningKey(String kid, String algorithm, byte[] publicKey, byte[] privateKey, long createdAt) {
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.publicKey = publicKey;
+        this.privateKey = privateKey;
+        this.createdAt = createdAt;
+    }
+}
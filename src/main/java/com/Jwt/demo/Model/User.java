@@ -13,14 +13,20 @@ import javax.validation.constraints.Size;
  * - @Entity: Marks this class to be stored in a database table.
  * - @Id/@GeneratedValue: Auto-generated numeric id.
  * - @Column + validation annotations: Basic rules and column settings.
+ * - @Version: Increased on every update; it is the user's ETag and stops two concurrent
+ *   updates from silently overwriting each other.
  */
 @Entity
+// Named so a violation can be reported as "username taken" or "email in use" (see UserService)
 @Table(name = "users", uniqueConstraints = {
-		@UniqueConstraint(columnNames = {"username"}),
-		@UniqueConstraint(columnNames = {"email"})
+		@UniqueConstraint(name = User.UNIQUE_USERNAME, columnNames = {"username"}),
+		@UniqueConstraint(name = User.UNIQUE_EMAIL, columnNames = {"email"})
 })
 public class User {
 
+	public static final String UNIQUE_USERNAME = "uk_users_username";
+	public static final String UNIQUE_EMAIL = "uk_users_email";
+
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	private Long id;
@@ -43,6 +49,15 @@ public class User {
 	@Column(nullable = false)
 	private boolean canManageUsers = false;
 
+	// Embedded in every token as "ver"; bumping it invalidates all of this user's tokens at once
+	@Column(name = "token_version", nullable = false, columnDefinition = "integer default 0")
+	private int tokenVersion = 0;
+
+	// Bulk updates (UserRepository) and raw inserts (UserImportService) must maintain it themselves
+	@Version
+	@Column(nullable = false, columnDefinition = "bigint default 0")
+	private long version;
+
 	public User() {}
 
 	public User(String username, String email, String password) {
@@ -61,4 +76,8 @@ public class User {
 	public void setPassword(String password) { this.password = password; }
 	public boolean isCanManageUsers() { return canManageUsers; }
 	public void setCanManageUsers(boolean canManageUsers) { this.canManageUsers = canManageUsers; }
+	public int getTokenVersion() { return tokenVersion; }
+	public void setTokenVersion(int tokenVersion) { this.tokenVersion = tokenVersion; }
+	public long getVersion() { return version; }
+	public void setVersion(long version) { this.version = version; }
 }
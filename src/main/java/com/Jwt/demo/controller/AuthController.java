@@ -1,14 +1,23 @@
 package com.Jwt.demo.controller;
 import com.Jwt.demo.payload.JwtResponse;
+import com.Jwt.demo.payload.UserResponse;
 import com.Jwt.demo.Model.User;
 import com.Jwt.demo.service.AuthService;
+import com.Jwt.demo.service.LoginRateLimiter;
+import com.Jwt.demo.service.RefreshTokenService;
 import com.Jwt.demo.service.TokenBlacklistService;
 import com.Jwt.demo.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Valid;
 import javax.validation.constraints.Email;
 import javax.validation.constraints.NotBlank;
 
@@ -37,34 +46,45 @@ public class AuthController {
 	@Autowired
 	private UserService userService;
 	private final TokenBlacklistService tokenBlacklistService;
+	private final LoginRateLimiter loginRateLimiter;
+	private final RefreshTokenService refreshTokenService;
 
-	public AuthController(AuthService authService, UserService userService, TokenBlacklistService tokenBlacklistService) {
+	public AuthController(AuthService authService, UserService userService, TokenBlacklistService tokenBlacklistService,
+						  LoginRateLimiter loginRateLimiter, RefreshTokenService refreshTokenService) {
 		this.authService = authService;
 		this.userService = userService;
 		this.tokenBlacklistService = tokenBlacklistService;
+		this.loginRateLimiter = loginRateLimiter;
+		this.refreshTokenService = refreshTokenService;
 	}
 
 	/**
 	 * Register a new user with username, email and password
 	 * Supports both JSON body and form parameters
 	 */
+	@PostMapping(value = "/register", consumes = MediaType.APPLICATION_JSON_VALUE)
+	public ResponseEntity<UserResponse> register(@Valid @RequestBody User userRequest) {
+		User user = userService.registerUser(userRequest.getUsername(), userRequest.getEmail(),
+				userRequest.getPassword(), userRequest.isCanManageUsers());
+		return ResponseEntity.ok(UserResponse.from(user));
+	}
+
+	// Form or query parameters (backward compatibility). Its own mapping, so the parameter checks
+	// never run against JSON requests, which carry no parameters
 	@PostMapping("/register")
-	public ResponseEntity<User> register(@RequestParam(required = false) @NotBlank String username,
-										 @RequestParam(required = false) @Email String email,
-										 @RequestParam(required = false) @NotBlank String password,
-										 @RequestParam(required = false) Boolean canManageUsers,
-										 @RequestBody(required = false) User userRequest) {
-		// Handle JSON body input
-		if (userRequest != null) {
-			User user = userService.registerUser(userRequest.getUsername(), userRequest.getEmail(),
-					userRequest.getPassword(), userRequest.isCanManageUsers());
-			return ResponseEntity.ok(user);
-		}
-		// Handle form parameters (backward compatibility)
+	public ResponseEntity<UserResponse> registerForm(@RequestParam @NotBlank String username,
+													 @RequestParam(required = false) @Email String email,
+													 @RequestParam @NotBlank String password,
+													 @RequestParam(required = false) Boolean canManageUsers) {
 		User user = userService.registerUser(username, email, password, canManageUsers);
-		return ResponseEntity.ok(user);
+		return ResponseEntity.ok(UserResponse.from(user));
 	}
 
+	// Failed parameter checks are the client's mistake: 400, not 500
+	@ExceptionHandler(ConstraintViolationException.class)
+	public ResponseEntity<String> invalidParameters(ConstraintViolationException e) {
+		return ResponseEntity.badRequest().body(e.getMessage());
+	}
 
 //	@PostMapping("/register")
 //	public ResponseEntity<User> register(@RequestParam User userRequest) {
@@ -83,16 +103,34 @@ public class AuthController {
 
 	@PostMapping("/login")
 	public ResponseEntity<JwtResponse> login(@RequestParam String username,
-											 @RequestParam String password) {
-		String token = authService.login(username, password);
-		return ResponseEntity.ok(new JwtResponse(token));
+											 @RequestParam String password,
+											 HttpServletRequest request) {
+		// Refuse floods early: no user lookup and no password hashing for rate-limited attempts
+		long retryAfterSeconds = loginRateLimiter.acquire(request.getRemoteAddr(), username);
+		if (retryAfterSeconds > 0) {
+			return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+					.header(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds)).build();
+		}
+		return ResponseEntity.ok(authService.login(username, password));
+	}
+
+	/**
+	 * Trade a refresh token for a new access token (and a new refresh token; the old one stops working)
+	 */
+	@PostMapping("/refresh")
+	public ResponseEntity<JwtResponse> refresh(@RequestParam String refreshToken) {
+		return ResponseEntity.ok(authService.refresh(refreshToken));
 	}
 
 	@PostMapping("/logout")
-	public ResponseEntity<String> logout(@RequestHeader("Authorization") String authHeader) {
+	public ResponseEntity<String> logout(@RequestHeader("Authorization") String authHeader,
+										 @RequestParam(required = false) String refreshToken) {
 		if (authHeader != null && authHeader.startsWith("Bearer ")) {
 			String token = authHeader.substring(7);
 			tokenBlacklistService.blacklistToken(token);
+			if (refreshToken != null) {
+				refreshTokenService.revoke(refreshToken);
+			}
 			return ResponseEntity.ok("Logged out successfully!");
 		}
 		return ResponseEntity.badRequest().body("Invalid token");
@@ -0,0 +1,31 @@
+package com.Jwt.demo.controller;
+
+import com.Jwt.demo.service.SigningKeyService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layman terms:
+ * Publishes the public keys our access tokens are signed with, in the standard JWKS format.
+ * Other services fetch this once, cache it, and then check our tokens themselves by "kid".
+ * When they see a kid they do not know, they should fetch it again (keys rotate).
+ */
+@RestController
+public class JwksController {
+
+	@Autowired
+	private SigningKeyService signingKeyService;
+
+	@GetMapping("/.well-known/jwks.json")
+	public ResponseEntity<Map<String, Object>> jwks() {
+		return ResponseEntity.ok()
+				.cacheControl(CacheControl.maxAge(5, TimeUnit.MINUTES).cachePublic())
+				.body(signingKeyService.jwks());
+	}
+}
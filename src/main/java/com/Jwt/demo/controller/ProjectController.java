@@ -0,0 +1,127 @@
+package com.Jwt.demo.controller;
+
+import com.Jwt.demo.payload.AssignmentRequest;
+import com.Jwt.demo.payload.AssignmentResult;
+import com.Jwt.demo.payload.BudgetSummary;
+import com.Jwt.demo.payload.ProjectFilter;
+import com.Jwt.demo.payload.ProjectPage;
+import com.Jwt.demo.payload.ProjectRequest;
+import com.Jwt.demo.payload.ProjectResponse;
+import com.Jwt.demo.service.AuthenticatedUser;
+import com.Jwt.demo.service.ProjectService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import javax.validation.Valid;
+import java.util.List;
+
+/**
+ * Layman terms:
+ * Endpoints for projects. Any logged-in user can list and view projects;
+ * creating, changing and deleting them requires canManageUsers=true.
+ *
+ * Java/Spring concepts (plain English):
+ * - @RequestBody + @Valid: Reads the JSON body into a ProjectRequest and checks its rules
+ *   (title and budget are required); a broken body gets 400 before the method runs.
+ * - Unknown ids in assignedUserIds are also answered with 400.
+ */
+@RestController
+@RequestMapping("/api/projects")
+public class ProjectController {
+
+	private static final String CAN_MANAGE = "hasAuthority('" + AuthenticatedUser.MANAGE_USERS + "')";
+
+	@Autowired
+	private ProjectService projectService;
+
+	/**
+	 * List projects with their assignees one page at a time, ordered by id.
+	 * Pass the returned nextCursor as "after" to get the following page.
+	 */
+	@GetMapping
+	public ResponseEntity<ProjectPage> list(@RequestParam(required = false) Long after,
+											@RequestParam(defaultValue = "" + ProjectService.DEFAULT_PAGE_SIZE) int size) {
+		return ResponseEntity.ok(projectService.findPage(after, size));
+	}
+
+	/**
+	 * Like the list, filtered by client, location and/or start date range (from/to, e.g. 2024-01-31).
+	 */
+	@GetMapping("/search")
+	public ResponseEntity<ProjectPage> search(ProjectFilter filter,
+											  @RequestParam(required = false) Long after,
+											  @RequestParam(defaultValue = "" + ProjectService.DEFAULT_PAGE_SIZE) int size) {
+		return ResponseEntity.ok(projectService.search(filter, after, size));
+	}
+
+	/**
+	 * Number of projects, total and average budget per client (same filters as search)
+	 */
+	@GetMapping("/stats/by-client")
+	public ResponseEntity<List<BudgetSummary>> budgetByClient(ProjectFilter filter) {
+		return ResponseEntity.ok(projectService.budgetByClient(filter));
+	}
+
+	/**
+	 * Number of projects, total and average budget per start month, e.g. "2024-03" (same filters as search)
+	 */
+	@GetMapping("/stats/by-month")
+	public ResponseEntity<List<BudgetSummary>> budgetByMonth(ProjectFilter filter) {
+		return ResponseEntity.ok(projectService.budgetByMonth(filter));
+	}
+
+	@GetMapping("/{id}")
+	public ResponseEntity<ProjectResponse> get(@PathVariable Long id) {
+		return projectService.findById(id)
+				.map(ResponseEntity::ok)
+				.orElse(ResponseEntity.notFound().build());
+	}
+
+	@PostMapping
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<ProjectResponse> create(@Valid @RequestBody ProjectRequest request) {
+		return ResponseEntity.status(HttpStatus.CREATED).body(projectService.create(request));
+	}
+
+	/**
+	 * Replace a project's fields; assignees only change if assignedUserIds is sent
+	 */
+	@PutMapping("/{id}")
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<ProjectResponse> update(@PathVariable Long id, @Valid @RequestBody ProjectRequest request) {
+		return projectService.update(id, request)
+				.map(ResponseEntity::ok)
+				.orElse(ResponseEntity.notFound().build());
+	}
+
+	/**
+	 * Add every user in userIds to every project in projectIds (requires canManageUsers=true).
+	 * The result lists which users were newly added to which project.
+	 */
+	@PostMapping("/assign")
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<AssignmentResult> assign(@Valid @RequestBody AssignmentRequest request) {
+		return ResponseEntity.ok(projectService.assign(request));
+	}
+
+	/**
+	 * Remove every user in userIds from every project in projectIds (requires canManageUsers=true).
+	 * The result lists which users were actually removed from which project.
+	 */
+	@PostMapping("/unassign")
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<AssignmentResult> unassign(@Valid @RequestBody AssignmentRequest request) {
+		return ResponseEntity.ok(projectService.unassign(request));
+	}
+
+	@DeleteMapping("/{id}")
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<Void> delete(@PathVariable Long id) {
+		return projectService.delete(id)
+				? ResponseEntity.noContent().build()
+				: ResponseEntity.notFound().build();
+	}
+}
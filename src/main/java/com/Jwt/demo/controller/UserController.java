@@ -1,15 +1,26 @@
 package com.Jwt.demo.controller;
 
-import com.Jwt.demo.Model.User;
-import com.Jwt.demo.repository.UserRepository;
+import com.Jwt.demo.payload.BulkImportResult;
+import com.Jwt.demo.payload.UserPage;
+import com.Jwt.demo.payload.UserResponse;
+import com.Jwt.demo.service.AuthenticatedUser;
+import com.Jwt.demo.service.UserImportService;
 import com.Jwt.demo.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.core.Authentication;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.Optional;
 
 /**
@@ -22,73 +33,132 @@ import java.util.Optional;
  * - Methods: Functions like me(), listAllUsers() that run when certain URLs are called.
  * - Encapsulation: This controller handles HTTP details and delegates business work to UserService.
  * - @GetMapping/@PutMapping/@DeleteMapping: Connect HTTP verbs (GET/PUT/DELETE) to methods.
- * - Authentication: Spring provides the current logged-in user via the Authentication parameter.
+ * - @AuthenticationPrincipal: Spring provides the current logged-in user, read from the token.
+ * - @PreAuthorize: Only runs the method if the token carries the MANAGE_USERS permission
+ *   (otherwise 403). No database lookup is needed for the check.
+ * - ETag / If-None-Match: Single-user responses carry an ETag built from the user's version.
+ *   A client that sends it back gets 304 Not Modified (no body) while the user is unchanged.
  */
 @RestController
 @RequestMapping("/api")
 public class UserController {
 
+	private static final String CAN_MANAGE = "hasAuthority('" + AuthenticatedUser.MANAGE_USERS + "')";
+
 	@Autowired
 	private UserService userService;
 
 	@Autowired
-	private UserRepository userRepository;
+	private UserImportService userImportService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
 
 	/**
 	 * Get the current logged-in user's profile
 	 */
 	@GetMapping("/me")
-	public ResponseEntity<User> me(Authentication authentication) {
-		String username = authentication.getName();
-		Optional<User> user = userRepository.findByUsername(username);
-		return user.map(ResponseEntity::ok).orElse(ResponseEntity.notFound().build());
+	public ResponseEntity<UserResponse> me(@AuthenticationPrincipal AuthenticatedUser principal, WebRequest request) {
+		return userWithETag(principal.getId(), request);
 	}
 
 	/**
-	 * List all users (requires canManageUsers=true)
+	 * List users one page at a time, ordered by id (requires canManageUsers=true).
+	 * Pass the returned nextCursor as "after" to get the following page.
 	 */
 	@GetMapping("/users")
-	public ResponseEntity<List<User>> listAllUsers(Authentication authentication) {
-		if (!currentCanManage(authentication)) return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-		return ResponseEntity.ok(userService.findAll());
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<UserPage> listAllUsers(@RequestParam(required = false) Long after,
+												 @RequestParam(defaultValue = "" + UserService.DEFAULT_PAGE_SIZE) int size) {
+		return ResponseEntity.ok(userService.findPage(after, size));
+	}
+
+	/**
+	 * Export all users as one JSON array, written row by row while reading from the database
+	 * (requires canManageUsers=true). Memory use does not depend on the number of users.
+	 */
+	@GetMapping(value = "/users/export", produces = MediaType.APPLICATION_JSON_VALUE)
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<StreamingResponseBody> exportUsers() {
+		StreamingResponseBody body = out -> {
+			try (JsonGenerator json = objectMapper.getFactory().createGenerator(out)) {
+				json.writeStartArray();
+				userService.forEachUser(user -> {
+					try {
+						json.writeObject(user);
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+				json.writeEndArray();
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+	}
+
+	/**
+	 * Create many users from JSON lines, one user object per line (requires canManageUsers=true).
+	 * Lines that fail are listed in the result; the others are still imported.
+	 */
+	@PostMapping(value = "/users/import", consumes = {"application/x-ndjson", MediaType.TEXT_PLAIN_VALUE})
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<BulkImportResult> importUsers(Reader body) throws IOException {
+		return ResponseEntity.ok(userImportService.importUsers(body));
 	}
 
 	/**
 	 * Get a single user by id (requires canManageUsers=true)
 	 */
 	@GetMapping("/users/{id}")
-	public ResponseEntity<User> getUser(@PathVariable Long id, Authentication authentication) {
-		if (!currentCanManage(authentication)) return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-		return userService.findById(id)
-				.map(ResponseEntity::ok)
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<UserResponse> getUser(@PathVariable Long id, WebRequest request) {
+		return userWithETag(id, request);
+	}
+
+	// A matching If-None-Match is answered from the version alone (usually cached), so the user is
+	// neither read nor serialized; otherwise the response columns are selected and sent with the ETag
+	private ResponseEntity<UserResponse> userWithETag(Long id, WebRequest request) {
+		if (request.getHeader(HttpHeaders.IF_NONE_MATCH) != null) {
+			Optional<Long> version = userService.findVersion(id);
+			if (version.isPresent() && request.checkNotModified(eTag(id, version.get()))) {
+				return null;
+			}
+		}
+		return userService.findResponse(id)
+				.map(user -> ResponseEntity.ok().eTag(eTag(user.getId(), user.getVersion())).body(user))
 				.orElse(ResponseEntity.notFound().build());
 	}
 
+	private static String eTag(Long id, long version) {
+		return "\"" + id + "-" + version + "\"";
+	}
+
 	/**
 	 * Update a user's manage flag (requires canManageUsers=true)
 	 */
 	@PutMapping("/users/{id}/canManage")
-	public ResponseEntity<User> updateManage(@PathVariable Long id, @RequestParam boolean canManageUsers, Authentication authentication) {
-		if (!currentCanManage(authentication)) return new ResponseEntity<>(HttpStatus.FORBIDDEN);
-		return ResponseEntity.ok(userService.updateUserManageFlag(id, canManageUsers));
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<UserResponse> updateManage(@PathVariable Long id, @RequestParam boolean canManageUsers) {
+		return ResponseEntity.ok(UserResponse.from(userService.updateUserManageFlag(id, canManageUsers)));
+	}
+
+	/**
+	 * Invalidate every token the user holds (requires canManageUsers=true)
+	 */
+	@PostMapping("/users/{id}/revokeSessions")
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<Void> revokeSessions(@PathVariable Long id) {
+		userService.revokeAllSessions(id);
+		return ResponseEntity.noContent().build();
 	}
 
 	/**
 	 * Delete a user (requires canManageUsers=true)
 	 */
 	@DeleteMapping("/users/{id}")
-	public ResponseEntity<Void> delete(@PathVariable Long id, Authentication authentication) {
-		if (!currentCanManage(authentication)) return new ResponseEntity<>(HttpStatus.FORBIDDEN);
+	@PreAuthorize(CAN_MANAGE)
+	public ResponseEntity<Void> delete(@PathVariable Long id) {
 		userService.deleteById(id);
 		return ResponseEntity.noContent().build();
 	}
-
-	// Helper: check the current user's manage flag
-	private boolean currentCanManage(Authentication authentication) {
-		if (authentication == null) return false;
-		String username = authentication.getName();
-		return userRepository.findByUsername(username)
-				.map(User::isCanManageUsers)
-				.orElse(false);
-	}
 }
@@ -0,0 +1,34 @@
+package com.Jwt.demo.payload;
+
+import javax.validation.constraints.NotEmpty;
+import javax.validation.constraints.Size;
+import java.util.Set;
+
+/**
+ * Body of bulk assign/unassign calls: every listed user is added to (or removed from) every listed project.
+ */
+public class AssignmentRequest {
+    @NotEmpty
+    @Size(max = 100)
+    private Set<Long> projectIds;
+
+    @NotEmpty
+    @Size(max = 1000)
+    private Set<Long> userIds;
+
+    public Set<Long> getProjectIds() {
+        return projectIds;
+    }
+
+    public void setProjectIds(Set<Long> projectIds) {
+        this.projectIds = projectIds;
+    }
+
+    public Set<Long> getUserIds() {
+        return userIds;
+    }
+
+    public void setUserIds(Set<Long> userIds) {
+        this.userIds = userIds;
+    }
+}
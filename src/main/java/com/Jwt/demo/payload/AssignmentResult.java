@@ -0,0 +1,54 @@
+package com.Jwt.demo.payload;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk assign/unassign: how many project/user pairs were asked for, how many of them
+ * actually changed, and which users were added to (or removed from) each project.
+ * Pairs that were already in the requested state are only counted in requestedPairs.
+ */
+public class AssignmentResult {
+    private int requestedPairs;
+    private int changedPairs;
+    private List<ProjectChange> changes = new ArrayList<>();
+
+    public AssignmentResult(int requestedPairs) {
+        this.requestedPairs = requestedPairs;
+    }
+
+    public void addChange(Long projectId, List<Long> userIds) {
+        changes.add(new ProjectChange(projectId, userIds));
+        changedPairs += userIds.size();
+    }
+
+    public int getRequestedPairs() {
+        return requestedPairs;
+    }
+
+    public int getChangedPairs() {
+        return changedPairs;
+    }
+
+    public List<ProjectChange> getChanges() {
+        return changes;
+    }
+
+    public static class ProjectChange {
+        private final Long projectId;
+        private final List<Long> userIds;
+
+        public ProjectChange(Long projectId, List<Long> userIds) {
+            this.projectId = projectId;
+            this.userIds = userIds;
+        }
+
+        public Long getProjectId() {
+            return projectId;
+        }
+
+        public List<Long> getUserIds() {
+            return userIds;
+        }
+    }
+}
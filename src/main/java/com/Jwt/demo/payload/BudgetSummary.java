@@ -0,0 +1,44 @@
+package com.Jwt.demo.payload;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Budget totals for one group of projects: one client, or one month of start dates ("2024-03").
+ * Built straight from SQL group-by results; the average is the total divided by the count,
+ * rounded to cents, so it stays exact instead of going through a floating-point AVG.
+ */
+public class BudgetSummary {
+    private final String key;
+    private final long projects;
+    private final BigDecimal totalBudget;
+    private final BigDecimal averageBudget;
+
+    public BudgetSummary(String client, Long projects, BigDecimal totalBudget) {
+        this.key = client;
+        this.projects = projects;
+        this.totalBudget = totalBudget;
+        this.averageBudget = projects == 0 ? BigDecimal.ZERO
+                : totalBudget.divide(BigDecimal.valueOf(projects), 2, RoundingMode.HALF_UP);
+    }
+
+    public BudgetSummary(Integer year, Integer month, Long projects, BigDecimal totalBudget) {
+        this(String.format("%04d-%02d", year, month), projects, totalBudget);
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public long getProjects() {
+        return projects;
+    }
+
+    public BigDecimal getTotalBudget() {
+        return totalBudget;
+    }
+
+    public BigDecimal getAverageBudget() {
+        return averageBudget;
+    }
+}
@@ -0,0 +1,62 @@
+package com.Jwt.demo.payload;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import: how many lines were read, how many users were created,
+ * and why each rejected line was rejected (line numbers start at 1).
+ */
+public class BulkImportResult {
+    private int received;
+    private int imported;
+    private List<RowError> errors = new ArrayList<>();
+
+    public void addReceived(int count) {
+        received += count;
+    }
+
+    public void addImported(int count) {
+        imported += count;
+    }
+
+    public void addError(int line, String username, String message) {
+        errors.add(new RowError(line, username, message));
+    }
+
+    public int getReceived() {
+        return received;
+    }
+
+    public int getImported() {
+        return imported;
+    }
+
+    public List<RowError> getErrors() {
+        return errors;
+    }
+
+    public static class RowError {
+        private final int line;
+        private final String username;
+        private final String message;
+
+        public RowError(int line, String username, String message) {
+            this.line = line;
+            this.username = username;
+            this.message = message;
+        }
+
+        public int getLine() {
+            return line;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+    }
+}
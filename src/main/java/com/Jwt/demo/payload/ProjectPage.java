@@ -0,0 +1,33 @@
+package com.Jwt.demo.payload;
+
+import java.util.List;
+
+/**
+ * One page of projects from keyset pagination, like UserPage.
+ * Pass nextCursor back as "after" to get the next page; it is null on the last page.
+ */
+public class ProjectPage {
+    private List<ProjectResponse> items;
+    private Long nextCursor;
+
+    public ProjectPage(List<ProjectResponse> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<ProjectResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<ProjectResponse> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,84 @@
+package com.Jwt.demo.payload;
+
+import javax.validation.constraints.NotBlank;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.PositiveOrZero;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Body of create/update project calls. Dates are ISO strings ("2024-03-31").
+ * assignedUserIds replaces the whole assignee list; leave it out on update to keep the current one.
+ */
+public class ProjectRequest {
+    @NotBlank
+    private String title;
+
+    private String location;
+
+    @NotNull
+    @PositiveOrZero
+    private BigDecimal budget;
+
+    private String client;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private Set<Long> assignedUserIds;
+
+    public String getTitle() {
+        return title;
+    }
+
+    public void setTitle(String title) {
+        this.title = title;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public void setLocation(String location) {
+        this.location = location;
+    }
+
+    public BigDecimal getBudget() {
+        return budget;
+    }
+
+    public void setBudget(BigDecimal budget) {
+        this.budget = budget;
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public void setClient(String client) {
+        this.client = client;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public void setStartDate(LocalDate startDate) {
+        this.startDate = startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public void setEndDate(LocalDate endDate) {
+        this.endDate = endDate;
+    }
+
+    public Set<Long> getAssignedUserIds() {
+        return assignedUserIds;
+    }
+
+    public void setAssignedUserIds(Set<Long> assignedUserIds) {
+        this.assignedUserIds = assignedUserIds;
+    }
+}
@@ -0,0 +1,97 @@
+package com.Jwt.demo.payload;
+
+import com.Jwt.demo.Model.Project;
+import com.Jwt.demo.Model.User;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * What the API returns for a project. Assignees are listed by id and username only, sorted by id.
+ * Build it from a Project whose assignedUsers were fetched with it (see ProjectRepository),
+ * otherwise reading them costs extra queries.
+ */
+public class ProjectResponse {
+    private Long id;
+    private String title;
+    private String location;
+    private BigDecimal budget;
+    private String client;
+    private LocalDate startDate;
+    private LocalDate endDate;
+    private List<Assignee> assignees;
+
+    public ProjectResponse(Long id, String title, String location, BigDecimal budget, String client,
+                           LocalDate startDate, LocalDate endDate, List<Assignee> assignees) {
+        this.id = id;
+        this.title = title;
+        this.location = location;
+        this.budget = budget;
+        this.client = client;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.assignees = assignees;
+    }
+
+    public static ProjectResponse from(Project project) {
+        List<Assignee> assignees = project.getAssignedUsers().stream()
+                .sorted(Comparator.comparing(User::getId))
+                .map(user -> new Assignee(user.getId(), user.getUsername()))
+                .collect(Collectors.toList());
+        return new ProjectResponse(project.getId(), project.getTitle(), project.getLocation(), project.getBudget(),
+                project.getClient(), project.getStartDate(), project.getEndDate(), assignees);
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getTitle() {
+        return title;
+    }
+
+    public String getLocation() {
+        return location;
+    }
+
+    public BigDecimal getBudget() {
+        return budget;
+    }
+
+    public String getClient() {
+        return client;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public List<Assignee> getAssignees() {
+        return assignees;
+    }
+
+    public static class Assignee {
+        private final Long id;
+        private final String username;
+
+        public Assignee(Long id, String username) {
+            this.id = id;
+            this.username = username;
+        }
+
+        public Long getId() {
+            return id;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+    }
+}
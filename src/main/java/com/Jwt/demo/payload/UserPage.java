@@ -0,0 +1,33 @@
+package com.Jwt.demo.payload;
+
+import java.util.List;
+
+/**
+ * One page of users from keyset pagination.
+ * Pass nextCursor back as "after" to get the next page; it is null on the last page.
+ */
+public class UserPage {
+    private List<UserResponse> items;
+    private Long nextCursor;
+
+    public UserPage(List<UserResponse> items, Long nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<UserResponse> getItems() {
+        return items;
+    }
+
+    public void setItems(List<UserResponse> items) {
+        this.items = items;
+    }
+
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(Long nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,56 @@
+package com.Jwt.demo.payload;
+
+import com.Jwt.demo.Model.User;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+/**
+ * What the API returns for a user: no password hash, no internal columns.
+ * Repositories build it straight from the selected columns (JPQL "select new ..."),
+ * so read endpoints never hydrate full User entities.
+ * The version is not part of the body; single-user reads send it as the ETag.
+ */
+public class UserResponse {
+    private Long id;
+    private String username;
+    private String email;
+    private boolean canManageUsers;
+    private long version;
+
+    public UserResponse(Long id, String username, String email, boolean canManageUsers) {
+        this(id, username, email, canManageUsers, 0L);
+    }
+
+    public UserResponse(Long id, String username, String email, boolean canManageUsers, long version) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.canManageUsers = canManageUsers;
+        this.version = version;
+    }
+
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.isCanManageUsers(),
+                user.getVersion());
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public boolean isCanManageUsers() {
+        return canManageUsers;
+    }
+
+    @JsonIgnore
+    public long getVersion() {
+        return version;
+    }
+}
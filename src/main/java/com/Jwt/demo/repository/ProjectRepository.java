@@ -1,4 +1,67 @@
 package com.Jwt.demo.repository;
 
-public class ProjectRepository {
+import com.Jwt.demo.Model.Project;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import javax.persistence.LockModeType;
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.hibernate.jpa.QueryHints.HINT_PASS_DISTINCT_THROUGH;
+
+public interface ProjectRepository extends JpaRepository<Project, Long>, ProjectSearchRepository {
+
+	// Keyset pagination, step 1: only the ids, so LIMIT counts projects and not project x assignee rows
+	@Query("select p.id from Project p where p.id > :afterId order by p.id")
+	List<Long> findIdsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+	// Step 2: those projects with their assignees in one query (left join fetch).
+	// distinct only removes the duplicate Project references in Java, it is not sent to the database.
+	@EntityGraph(attributePaths = "assignedUsers")
+	@QueryHints(@QueryHint(name = HINT_PASS_DISTINCT_THROUGH, value = "false"))
+	@Query("select distinct p from Project p where p.id in :ids order by p.id")
+	List<Project> findWithAssigneesByIdIn(@Param("ids") Collection<Long> ids);
+
+	@EntityGraph(attributePaths = "assignedUsers")
+	Optional<Project> findWithAssigneesById(Long id);
+
+	// Bulk assignment locks the projects it changes (in id order, so two requests cannot deadlock)
+	@Lock(LockModeType.PESSIMISTIC_WRITE)
+	@Query("select p from Project p where p.id in :ids order by p.id")
+	List<Project> lockAllById(@Param("ids") Collection<Long> ids);
+
+	// Which of these project/user pairs exist already: rows of [project_id, user_id]
+	@Query(value = "select project_id, user_id from project_users "
+			+ "where project_id in (:projectIds) and user_id in (:userIds)", nativeQuery = true)
+	List<Object[]> findAssignments(@Param("projectIds") Collection<Long> projectIds,
+								   @Param("userIds") Collection<Long> userIds);
+
+	// One statement for every pair; pairs that already exist are skipped by the primary key
+	@Modifying
+	@Query(value = "insert into project_users (project_id, user_id) "
+			+ "select p.id, u.id from projects p cross join users u "
+			+ "where p.id in (:projectIds) and u.id in (:userIds) "
+			+ "on conflict do nothing", nativeQuery = true)
+	int insertAssignments(@Param("projectIds") Collection<Long> projectIds,
+						  @Param("userIds") Collection<Long> userIds);
+
+	@Modifying
+	@Query(value = "delete from project_users "
+			+ "where project_id in (:projectIds) and user_id in (:userIds)", nativeQuery = true)
+	int deleteAssignments(@Param("projectIds") Collection<Long> projectIds,
+						  @Param("userIds") Collection<Long> userIds);
+
+	// Users cannot be deleted while join rows still point at them
+	@Modifying
+	@Query(value = "delete from project_users where user_id = :userId", nativeQuery = true)
+	int removeUserFromAllProjects(@Param("userId") Long userId);
 }
@@ -0,0 +1,22 @@
+package com.Jwt.demo.repository;
+
+import com.Jwt.demo.payload.BudgetSummary;
+import com.Jwt.demo.payload.ProjectFilter;
+
+import java.util.List;
+
+/**
+ * Project queries whose WHERE clause depends on which filters are set.
+ * Only the filters that are present end up in the SQL, so the database can pick the matching
+ * index (client/start_date, location/start_date or start_date) instead of a generic plan.
+ */
+public interface ProjectSearchRepository {
+
+	// Ids of matching projects after the given id, in id order (keyset pagination)
+	List<Long> searchIds(ProjectFilter filter, long afterId, int limit);
+
+	// Sums and counts are computed by the database; no Project is loaded
+	List<BudgetSummary> budgetByClient(ProjectFilter filter);
+
+	List<BudgetSummary> budgetByMonth(ProjectFilter filter);
+}
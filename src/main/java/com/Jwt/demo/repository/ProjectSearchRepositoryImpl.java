@@ -0,0 +1,83 @@
+package com.Jwt.demo.repository;
+
+import com.Jwt.demo.Model.Project;
+import com.Jwt.demo.payload.BudgetSummary;
+import com.Jwt.demo.payload.ProjectFilter;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.criteria.CriteriaBuilder;
+import javax.persistence.criteria.CriteriaQuery;
+import javax.persistence.criteria.Expression;
+import javax.persistence.criteria.Predicate;
+import javax.persistence.criteria.Root;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+class ProjectSearchRepositoryImpl implements ProjectSearchRepository {
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@Override
+	public List<Long> searchIds(ProjectFilter filter, long afterId, int limit) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<Long> query = cb.createQuery(Long.class);
+		Root<Project> project = query.from(Project.class);
+		List<Predicate> where = predicates(cb, project, filter);
+		where.add(cb.greaterThan(project.get("id"), afterId));
+		query.select(project.get("id"))
+				.where(where.toArray(new Predicate[0]))
+				.orderBy(cb.asc(project.get("id")));
+		return entityManager.createQuery(query).setMaxResults(limit).getResultList();
+	}
+
+	@Override
+	public List<BudgetSummary> budgetByClient(ProjectFilter filter) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<BudgetSummary> query = cb.createQuery(BudgetSummary.class);
+		Root<Project> project = query.from(Project.class);
+		Expression<String> client = project.get("client");
+		query.select(cb.construct(BudgetSummary.class, client, cb.count(project), cb.sum(project.<BigDecimal>get("budget"))))
+				.where(predicates(cb, project, filter).toArray(new Predicate[0]))
+				.groupBy(client)
+				.orderBy(cb.asc(client));
+		return entityManager.createQuery(query).getResultList();
+	}
+
+	@Override
+	public List<BudgetSummary> budgetByMonth(ProjectFilter filter) {
+		CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+		CriteriaQuery<BudgetSummary> query = cb.createQuery(BudgetSummary.class);
+		Root<Project> project = query.from(Project.class);
+		Expression<LocalDate> startDate = project.get("startDate");
+		Expression<Integer> year = cb.function("year", Integer.class, startDate);
+		Expression<Integer> month = cb.function("month", Integer.class, startDate);
+		List<Predicate> where = predicates(cb, project, filter);
+		where.add(cb.isNotNull(startDate));
+		query.select(cb.construct(BudgetSummary.class, year, month, cb.count(project), cb.sum(project.<BigDecimal>get("budget"))))
+				.where(where.toArray(new Predicate[0]))
+				.groupBy(year, month)
+				.orderBy(cb.asc(year), cb.asc(month));
+		return entityManager.createQuery(query).getResultList();
+	}
+
+	private static List<Predicate> predicates(CriteriaBuilder cb, Root<Project> project, ProjectFilter filter) {
+		List<Predicate> where = new ArrayList<>();
+		if (filter.getClient() != null) {
+			where.add(cb.equal(project.get("client"), filter.getClient()));
+		}
+		if (filter.getLocation() != null) {
+			where.add(cb.equal(project.get("location"), filter.getLocation()));
+		}
+		if (filter.getFrom() != null) {
+			where.add(cb.greaterThanOrEqualTo(project.get("startDate"), filter.getFrom()));
+		}
+		if (filter.getTo() != null) {
+			where.add(cb.lessThanOrEqualTo(project.get("startDate"), filter.getTo()));
+		}
+		return where;
+	}
+}
@@ -0,0 +1,26 @@
+package com.Jwt.demo.repository;
+
+import com.Jwt.demo.Model.RefreshToken;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Optional;
+
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+	Optional<RefreshToken> findByTokenHash(String tokenHash);
+
+	// Returns 0 if someone else revoked it first, so a token can only be rotated once
+	@Modifying
+	@Query("update RefreshToken r set r.revoked = true where r.id = :id and r.revoked = false")
+	int revoke(@Param("id") Long id);
+
+	@Modifying
+	@Query("update RefreshToken r set r.revoked = true where r.userId = :userId and r.revoked = false")
+	int revokeAllForUser(@Param("userId") Long userId);
+
+	@Modifying
+	@Query("delete from RefreshToken r where r.expiresAt <= :nowMs")
+	int deleteExpired(@Param("nowMs") long nowMs);
+}
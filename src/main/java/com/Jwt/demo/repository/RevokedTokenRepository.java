@@ -0,0 +1,19 @@
+package com.Jwt.demo.repository;
+
+import com.Jwt.demo.Model.RevokedToken;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface RevokedTokenRepository extends JpaRepository<RevokedToken, Long> {
+	List<RevokedToken> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+	List<RevokedToken> findByExpiresAtGreaterThan(long nowMs);
+
+	@Modifying
+	@Query("delete from RevokedToken r where r.expiresAt <= :nowMs")
+	int deleteExpired(@Param("nowMs") long nowMs);
+}
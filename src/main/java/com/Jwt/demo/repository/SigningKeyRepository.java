@@ -0,0 +1,17 @@
+package com.Jwt.demo.repository;
+
+import com.Jwt.demo.Model.SigningKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+
+public interface SigningKeyRepository extends JpaRepository<SigningKey, String> {
+	List<SigningKey> findByCreatedAtGreaterThanOrderByCreatedAtDesc(long createdAfter);
+
+	@Modifying
+	@Query("delete from SigningKey k where k.createdAt <= :createdBefore")
+	int deleteRetired(@Param("createdBefore") long createdBefore);
+}
@@ -1,12 +1,64 @@
 package com.Jwt.demo.repository;
 
 import com.Jwt.demo.Model.User;
+import com.Jwt.demo.payload.UserResponse;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface UserRepository extends JpaRepository<User, Long> {
 	Optional<User> findByUsername(String username);
 	boolean existsByUsername(String username);
 	boolean existsByEmail(String email);
+
+	// Keyset pagination: the next page starts after the last id of the previous one
+	@Query("select new com.Jwt.demo.payload.UserResponse(u.id, u.username, u.email, u.canManageUsers) "
+			+ "from User u where u.id > :afterId order by u.id")
+	List<UserResponse> findResponsesAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+	// Streams rows through a JDBC cursor; must be consumed inside a transaction and closed
+	@QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "500"))
+	@Query("select new com.Jwt.demo.payload.UserResponse(u.id, u.username, u.email, u.canManageUsers) "
+			+ "from User u order by u.id")
+	Stream<UserResponse> streamResponsesOrderById();
+
+	// Set-based uniqueness checks for bulk import: which of these are already taken?
+	@Query("select u.username from User u where u.username in :usernames")
+	List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+	@Query("select u.email from User u where u.email in :emails")
+	List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+	@Query("select u.id from User u where u.id in :ids")
+	List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+	@Modifying
+	@Query("update User u set u.password = :password, u.version = u.version + 1 where u.username = :username")
+	int updatePassword(@Param("username") String username, @Param("password") String password);
+
+	@Query("select u.tokenVersion from User u where u.id = :id")
+	Optional<Integer> findTokenVersionById(@Param("id") Long id);
+
+	// One user as the API shows it, plus the version for its ETag; the password hash is never read
+	@Query("select new com.Jwt.demo.payload.UserResponse(u.id, u.username, u.email, u.canManageUsers, u.version) "
+			+ "from User u where u.id = :id")
+	Optional<UserResponse> findResponseById(@Param("id") Long id);
+
+	@Query("select u.username from User u where u.id = :id")
+	Optional<String> findUsernameById(@Param("id") Long id);
+
+	// Enough to answer a conditional GET without loading the user
+	@Query("select u.version from User u where u.id = :id")
+	Optional<Long> findVersionById(@Param("id") Long id);
 }
@@ -0,0 +1,96 @@
+package com.Jwt.demo.service;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.Arrays;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Layman terms:
+ * BCrypt has a "cost" knob: each +1 doubles the time to hash a password. The cost is configured
+ * (app.security.bcrypt.strength) so every instance of the cluster uses the same one. calibrated()
+ * measures this CPU and picks the highest cost that fits a time budget; operators run it
+ * (strength=0) on production hardware and copy the logged result into the configuration.
+ *
+ * Stored hashes made with a lower cost still verify. upgradeEncoding() reports them, and
+ * Spring Security then re-hashes the password with the current cost right after a successful
+ * login (see CustomUserDetailsService.updatePassword), so no mass password reset is needed.
+ * Hashes with a higher cost are kept: re-hashing them would only weaken them.
+ */
+public class AdaptiveBCryptPasswordEncoder implements PasswordEncoder {
+
+	private static final Logger log = LoggerFactory.getLogger(AdaptiveBCryptPasswordEncoder.class);
+	// Odd, so the median is one real measurement
+	private static final int SAMPLES = 5;
+	private static final Pattern BCRYPT_COST = Pattern.compile("\\A\\$2[aby]?\\$(\\d\\d)\\$");
+
+	private final int strength;
+	private final BCryptPasswordEncoder delegate;
+
+	public AdaptiveBCryptPasswordEncoder(int strength) {
+		this.strength = strength;
+		this.delegate = new BCryptPasswordEncoder(strength);
+	}
+
+	/**
+	 * Measure this CPU and return an encoder with the highest cost in [minStrength, maxStrength]
+	 * whose hash time stays within targetMs.
+	 */
+	public static AdaptiveBCryptPasswordEncoder calibrated(long targetMs, int minStrength, int maxStrength) {
+		// Warm up so class loading and JIT do not count against the first measurement
+		new BCryptPasswordEncoder(4).encode("calibration");
+		int strength = minStrength;
+		long elapsedMs = measure(strength);
+		// Each step doubles the cost, so predict the next one from the current measurement
+		while (strength < maxStrength && elapsedMs * 2 <= targetMs) {
+			strength++;
+			elapsedMs = measure(strength);
+		}
+		log.warn("BCrypt cost calibrated to {} (~{} ms per hash, target {} ms); set app.security.bcrypt.strength={} "
+				+ "on every instance so the cluster agrees on one cost", strength, elapsedMs, targetMs, strength);
+		return new AdaptiveBCryptPasswordEncoder(strength);
+	}
+
+	// Median of several hashes, so one GC pause or noisy neighbour does not decide the cost
+	private static long measure(int strength) {
+		BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(strength);
+		long[] samples = new long[SAMPLES];
+		for (int i = 0; i < SAMPLES; i++) {
+			long start = System.nanoTime();
+			encoder.encode("calibration");
+			samples[i] = (System.nanoTime() - start) / 1_000_000;
+		}
+		Arrays.sort(samples);
+		return samples[SAMPLES / 2];
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return delegate.encode(rawPassword);
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return delegate.matches(rawPassword, encodedPassword);
+	}
+
+	/**
+	 * True when the stored hash was made with a lower cost than the current one.
+	 */
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		if (encodedPassword == null) {
+			return false;
+		}
+		Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+		return matcher.find() && Integer.parseInt(matcher.group(1)) < strength;
+	}
+
+	public int getStrength() {
+		return strength;
+	}
+}
@@ -0,0 +1,81 @@
+package com.Jwt.demo.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+/**
+ * Layman terms:
+ * Publishes the counters our security components already keep (revocation list, caches,
+ * password hashing pool, login rate limiter) as metrics. Values are read when Prometheus
+ * scrapes, so this adds no work to requests.
+ *
+ * The components are injected lazily: the meter registry is created early (repositories report
+ * metrics too) and must not pull the whole security setup in with it.
+ */
+@Component
+public class AuthMeterBinder implements MeterBinder {
+
+	@Autowired
+	@Lazy
+	private TokenBlacklistService tokenBlacklistService;
+
+	@Autowired
+	@Lazy
+	private VerifiedTokenCache verifiedTokenCache;
+
+	@Autowired
+	@Lazy
+	private UserCache userCache;
+
+	@Autowired
+	@Lazy
+	private BoundedPasswordEncoder passwordEncoder;
+
+	@Autowired
+	@Lazy
+	private LoginRateLimiter loginRateLimiter;
+
+	@Override
+	public void bindTo(MeterRegistry registry) {
+		// Revocation list and its Bloom filter
+		Gauge.builder("auth.revocation.size", tokenBlacklistService, TokenBlacklistService::size)
+				.description("Revoked tokens that have not expired yet").register(registry);
+		FunctionCounter.builder("auth.revocation.revoked", tokenBlacklistService, TokenBlacklistService::getRevokedCount)
+				.register(registry);
+		FunctionCounter.builder("auth.revocation.purged", tokenBlacklistService, TokenBlacklistService::getEvictedCount)
+				.register(registry);
+		FunctionCounter.builder("auth.revocation.filter.rejects", tokenBlacklistService, TokenBlacklistService::getFilterRejects)
+				.description("Lookups answered by the Bloom filter alone").register(registry);
+		FunctionCounter.builder("auth.revocation.filter.false_positives", tokenBlacklistService, TokenBlacklistService::getFilterFalsePositives)
+				.register(registry);
+		Gauge.builder("auth.revocation.filter.bits", tokenBlacklistService, TokenBlacklistService::getFilterBits)
+				.register(registry);
+
+		Gauge.builder("auth.verified_cache.size", verifiedTokenCache, VerifiedTokenCache::size).register(registry);
+
+		Gauge.builder("users.cache.size", userCache, UserCache::size).register(registry);
+		FunctionCounter.builder("users.cache.requests", userCache, UserCache::getHits).tag("result", "hit").register(registry);
+		FunctionCounter.builder("users.cache.requests", userCache, UserCache::getMisses).tag("result", "miss").register(registry);
+		FunctionCounter.builder("users.cache.evictions", userCache, UserCache::getEvictions).register(registry);
+
+		// Password hashing pool
+		Gauge.builder("auth.password.pool.queued", passwordEncoder, BoundedPasswordEncoder::getQueueDepth).register(registry);
+		Gauge.builder("auth.password.pool.active", passwordEncoder, BoundedPasswordEncoder::getActiveCount).register(registry);
+		FunctionCounter.builder("auth.password.pool.rejected", passwordEncoder, BoundedPasswordEncoder::getRejectedCount)
+				.description("Hashing requests refused with 503 (queue full or timed out)").register(registry);
+
+		// Login rate limiter
+		FunctionCounter.builder("auth.login.rate_limit", loginRateLimiter, LoginRateLimiter::getAllowed)
+				.tag("result", "allowed").register(registry);
+		FunctionCounter.builder("auth.login.rate_limit", loginRateLimiter, LoginRateLimiter::getRejectedByIp)
+				.tag("result", "rejected_ip").register(registry);
+		FunctionCounter.builder("auth.login.rate_limit", loginRateLimiter, LoginRateLimiter::getRejectedByUsername)
+				.tag("result", "rejected_username").register(registry);
+		Gauge.builder("auth.login.rate_limit.keys", loginRateLimiter, LoginRateLimiter::size).register(registry);
+	}
+}
@@ -0,0 +1,128 @@
+package com.Jwt.demo.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Layman terms:
+ * Stopwatches for the login and token-checking code, published at /actuator/prometheus.
+ *
+ * - auth.filter{outcome}: time JwtAuthenticationFilter spends on one request, by result
+ *   (authenticated, expired, revoked, ...), so its count is also the number of requests per result.
+ * - auth.filter.stage{stage}: the parts of that time (revocation check, verified-token cache,
+ *   signature/expiry check, token version check, user load for old tokens).
+ * - auth.login{outcome}: whole login; auth.user.lookup and auth.password.hash/queue{op} show how
+ *   much of it is finding the user vs. BCrypt (and waiting for a BCrypt thread).
+ *
+ * All timers are created once up front, so recording is a clock read and an atomic add.
+ * With app.metrics.auth.enabled=false nothing is measured (used to compare overhead).
+ */
+@Component
+public class AuthMetrics {
+
+	public enum FilterStage { REVOCATION, CACHE, VERIFY, TOKEN_VERSION, USER_LOAD }
+
+	public enum FilterOutcome {
+		NO_TOKEN, ALREADY_AUTHENTICATED, AUTHENTICATED, AUTHENTICATED_CACHED,
+		REVOKED, MALFORMED, BAD_SIGNATURE, EXPIRED, UNSUPPORTED, STALE_VERSION, UNKNOWN_USER
+	}
+
+	public enum LoginOutcome { SUCCESS, BAD_CREDENTIALS, BUSY, ERROR }
+
+	private final boolean enabled;
+	private final Map<FilterStage, Timer> stageTimers = new EnumMap<>(FilterStage.class);
+	private final Map<FilterOutcome, Timer> filterTimers = new EnumMap<>(FilterOutcome.class);
+	private final Map<LoginOutcome, Timer> loginTimers = new EnumMap<>(LoginOutcome.class);
+	private final Timer userLookupTimer;
+	private final Timer matchesTimer;
+	private final Timer matchesQueueTimer;
+	private final Timer encodeTimer;
+	private final Timer encodeQueueTimer;
+
+	public AuthMetrics(MeterRegistry registry, @Value("${app.metrics.auth.enabled:true}") boolean enabled) {
+		this.enabled = enabled;
+		for (FilterStage stage : FilterStage.values()) {
+			stageTimers.put(stage, Timer.builder("auth.filter.stage")
+					.description("Time spent in one step of JWT authentication")
+					.tag("stage", tagValue(stage))
+					.register(registry));
+		}
+		for (FilterOutcome outcome : FilterOutcome.values()) {
+			filterTimers.put(outcome, Timer.builder("auth.filter")
+					.description("Time spent in JwtAuthenticationFilter, by result")
+					.tag("outcome", tagValue(outcome))
+					.register(registry));
+		}
+		for (LoginOutcome outcome : LoginOutcome.values()) {
+			loginTimers.put(outcome, Timer.builder("auth.login")
+					.description("Login latency, by result")
+					.tag("outcome", tagValue(outcome))
+					.register(registry));
+		}
+		userLookupTimer = Timer.builder("auth.user.lookup")
+				.description("Loading a user by username for authentication")
+				.register(registry);
+		matchesTimer = passwordTimer(registry, "auth.password.hash", "matches");
+		matchesQueueTimer = passwordTimer(registry, "auth.password.queue", "matches");
+		encodeTimer = passwordTimer(registry, "auth.password.hash", "encode");
+		encodeQueueTimer = passwordTimer(registry, "auth.password.queue", "encode");
+	}
+
+	private static Timer passwordTimer(MeterRegistry registry, String name, String op) {
+		return Timer.builder(name)
+				.description(name.endsWith("queue") ? "Wait for a password hashing thread" : "BCrypt hashing time")
+				.tag("op", op)
+				.register(registry);
+	}
+
+	private static String tagValue(Enum<?> value) {
+		return value.name().toLowerCase();
+	}
+
+	public boolean isEnabled() {
+		return enabled;
+	}
+
+	/**
+	 * Start a measurement; pass the result to one of the record methods.
+	 */
+	public long start() {
+		return enabled ? System.nanoTime() : 0L;
+	}
+
+	public void stage(FilterStage stage, long startNanos) {
+		record(stageTimers.get(stage), startNanos);
+	}
+
+	public void filter(FilterOutcome outcome, long startNanos) {
+		record(filterTimers.get(outcome), startNanos);
+	}
+
+	public void login(LoginOutcome outcome, long startNanos) {
+		record(loginTimers.get(outcome), startNanos);
+	}
+
+	public void userLookup(long startNanos) {
+		record(userLookupTimer, startNanos);
+	}
+
+	// Called by BoundedPasswordEncoder with times it already measures
+	void passwordHashed(boolean matches, long queueNanos, long hashNanos) {
+		if (enabled) {
+			(matches ? matchesQueueTimer : encodeQueueTimer).record(queueNanos, TimeUnit.NANOSECONDS);
+			(matches ? matchesTimer : encodeTimer).record(hashNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private void record(Timer timer, long startNanos) {
+		if (enabled) {
+			timer.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+		}
+	}
+}
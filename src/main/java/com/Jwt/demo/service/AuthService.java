@@ -1,16 +1,18 @@
 package com.Jwt.demo.service;
 
+import com.Jwt.demo.payload.JwtResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
 /**
  * Layman terms:
  * This class logs a user in. You give username + password, it checks them,
- * and if correct it gives you back a short "ticket" (JWT token) to use on future calls.
+ * and if correct it gives you back a short "ticket" (JWT token) to use on future calls,
+ * plus a refresh token to get a new ticket when the old one expires.
  *
  * Java/Spring concepts:
  * - @Service: Marks this class as a business/service component.
@@ -27,14 +29,50 @@ public class AuthService {
 	@Autowired
 	private JwtUtil jwtUtil;
 
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private UserCache userCache;
+
+	@Autowired
+	private AuthMetrics metrics;
+
+	/**
+	 * Try to log in with username and password. If success, return a short-lived access token
+	 * and a refresh token.
+	 */
+	public JwtResponse login(String username, String password) {
+		long started = metrics.start();
+		AuthMetrics.LoginOutcome outcome = AuthMetrics.LoginOutcome.ERROR;
+		try {
+			Authentication authentication = authenticationManager.authenticate(
+					new UsernamePasswordAuthenticationToken(username, password)
+			);
+			AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+			JwtResponse response = new JwtResponse(jwtUtil.generateToken(user), refreshTokenService.issue(user.getId()));
+			outcome = AuthMetrics.LoginOutcome.SUCCESS;
+			return response;
+		} catch (PasswordHashingBusyException e) {
+			outcome = AuthMetrics.LoginOutcome.BUSY;
+			throw e;
+		} catch (AuthenticationException e) {
+			outcome = AuthMetrics.LoginOutcome.BAD_CREDENTIALS;
+			throw e;
+		} finally {
+			metrics.login(outcome, started);
+		}
+	}
+
 	/**
-	 * Try to log in with username and password. If success, return a JWT token string.
+	 * Trade a refresh token for a new access token and a new refresh token.
+	 * The access token carries the user's current permissions and token version.
 	 */
-	public String login(String username, String password) {
-		Authentication authentication = authenticationManager.authenticate(
-				new UsernamePasswordAuthenticationToken(username, password)
-		);
-		UserDetails userDetails = (UserDetails) authentication.getPrincipal();
-		return jwtUtil.generateToken(userDetails.getUsername());
+	public JwtResponse refresh(String refreshToken) {
+		Long userId = refreshTokenService.consume(refreshToken);
+		AuthenticatedUser user = userCache.findById(userId)
+				.map(AuthenticatedUser::of)
+				.orElseThrow(() -> new InvalidRefreshTokenException("User no longer exists"));
+		return new JwtResponse(jwtUtil.generateToken(user), refreshTokenService.issue(userId));
 	}
 }
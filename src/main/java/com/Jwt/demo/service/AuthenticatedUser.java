@@ -0,0 +1,45 @@
+package com.Jwt.demo.service;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The logged-in user as seen by Spring Security, plus the fields our tokens are checked against.
+ * Built from the database at login, and from the signed token claims on every other request.
+ */
+public class AuthenticatedUser extends User {
+
+	// Granted to users with canManageUsers=true; checked with @PreAuthorize
+	public static final String MANAGE_USERS = "MANAGE_USERS";
+
+	private final Long id;
+	private final int tokenVersion;
+	private final boolean canManageUsers;
+
+	public AuthenticatedUser(Long id, String username, String password, int tokenVersion, boolean canManageUsers) {
+		super(username, password, authoritiesFor(canManageUsers));
+		this.id = id;
+		this.tokenVersion = tokenVersion;
+		this.canManageUsers = canManageUsers;
+	}
+
+	public static AuthenticatedUser of(com.Jwt.demo.Model.User user) {
+		return new AuthenticatedUser(user.getId(), user.getUsername(), user.getPassword(),
+				user.getTokenVersion(), user.isCanManageUsers());
+	}
+
+	private static List<GrantedAuthority> authoritiesFor(boolean canManageUsers) {
+		return canManageUsers
+				? Collections.<GrantedAuthority>singletonList(new SimpleGrantedAuthority(MANAGE_USERS))
+				: Collections.<GrantedAuthority>emptyList();
+	}
+
+	public Long getId() { return id; }
+	public int getTokenVersion() { return tokenVersion; }
+	public boolean isCanManageUsers() { return canManageUsers; }
+}
@@ -0,0 +1,124 @@
+package com.Jwt.demo.service;
+
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Layman terms:
+ * Password hashing (BCrypt) is deliberately slow and eats CPU. This wrapper runs it on its own
+ * small pool of threads with a short waiting line. If the line is full, the caller gets a quick
+ * 503 instead of tying up a web thread, so a login storm cannot starve cheap requests like /api/me.
+ *
+ * Counters for queue wait and hashing time are kept so the cost of logins can be watched;
+ * with setMetrics each call is also recorded as a timer (see AuthMetrics).
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final long timeoutMs;
+
+	private final AtomicLong completed = new AtomicLong();
+	private final AtomicLong rejected = new AtomicLong();
+	private final AtomicLong queueWaitNanos = new AtomicLong();
+	private final AtomicLong hashNanos = new AtomicLong();
+
+	private volatile AuthMetrics metrics;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long timeoutMs) {
+		this.delegate = delegate;
+		this.timeoutMs = timeoutMs;
+		AtomicInteger threadNumber = new AtomicInteger();
+		this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "password-hash-" + threadNumber.incrementAndGet());
+					thread.setDaemon(true);
+					return thread;
+				},
+				new ThreadPoolExecutor.AbortPolicy());
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return run(false, () -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return run(true, () -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	private <T> T run(boolean matches, Callable<T> work) {
+		long submittedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				long startedAt = System.nanoTime();
+				long waited = startedAt - submittedAt;
+				queueWaitNanos.addAndGet(waited);
+				try {
+					return work.call();
+				} finally {
+					long hashed = System.nanoTime() - startedAt;
+					hashNanos.addAndGet(hashed);
+					completed.incrementAndGet();
+					AuthMetrics current = metrics;
+					if (current != null) {
+						current.passwordHashed(matches, waited, hashed);
+					}
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			rejected.incrementAndGet();
+			throw new PasswordHashingBusyException("Password hashing queue is full");
+		}
+		try {
+			return future.get(timeoutMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException e) {
+			future.cancel(true);
+			rejected.incrementAndGet();
+			throw new PasswordHashingBusyException("Password hashing timed out after " + timeoutMs + " ms");
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new PasswordHashingBusyException("Interrupted while waiting for password hashing");
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+			if (cause instanceof Error) throw (Error) cause;
+			throw new IllegalStateException(cause);
+		}
+	}
+
+	public void setMetrics(AuthMetrics metrics) {
+		this.metrics = metrics;
+	}
+
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	// Metrics
+	public int getQueueDepth() { return executor.getQueue().size(); }
+	public int getActiveCount() { return executor.getActiveCount(); }
+	public long getCompletedCount() { return completed.get(); }
+	public long getRejectedCount() { return rejected.get(); }
+	public long getTotalQueueWaitNanos() { return queueWaitNanos.get(); }
+	public long getTotalHashNanos() { return hashNanos.get(); }
+}
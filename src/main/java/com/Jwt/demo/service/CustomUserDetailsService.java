@@ -4,27 +4,47 @@ import com.Jwt.demo.Model.User;
 import com.Jwt.demo.repository.UserRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.Collections;
+import java.util.Optional;
 
 @Service
-public class CustomUserDetailsService implements UserDetailsService {
+public class CustomUserDetailsService implements UserDetailsService, UserDetailsPasswordService {
+
+	@Autowired
+	private UserCache userCache;
 
 	@Autowired
 	private UserRepository userRepository;
 
+	@Autowired
+	private AuthMetrics metrics;
+
 	@Override
 	public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
-		User user = userRepository.findByUsername(username)
-				.orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
-
-		return new org.springframework.security.core.userdetails.User(
-				user.getUsername(),
-				user.getPassword(),
-				Collections.emptyList()
-		);
+		long started = metrics.start();
+		Optional<User> found = userCache.findByUsername(username);
+		metrics.userLookup(started);
+		User user = found.orElseThrow(() -> new UsernameNotFoundException("User not found: " + username));
+
+		return AuthenticatedUser.of(user);
+	}
+
+	/**
+	 * Called by Spring Security after a successful login when the stored hash uses an outdated
+	 * BCrypt cost: saves the password re-hashed with the current cost.
+	 */
+	@Override
+	@Transactional
+	public UserDetails updatePassword(UserDetails user, String newPassword) {
+		AuthenticatedUser current = (AuthenticatedUser) user;
+		userRepository.updatePassword(current.getUsername(), newPassword);
+		userCache.evict(current.getId());
+		return new AuthenticatedUser(current.getId(), current.getUsername(), newPassword,
+				current.getTokenVersion(), current.isCanManageUsers());
 	}
 }
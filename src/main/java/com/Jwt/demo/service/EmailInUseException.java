@@ -0,0 +1,12 @@
+package com.Jwt.demo.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT, reason = "Email already in use")
+public class EmailInUseException extends IllegalArgumentException {
+
+	public EmailInUseException() {
+		super("Email already in use");
+	}
+}
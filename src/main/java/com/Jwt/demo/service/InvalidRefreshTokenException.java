@@ -0,0 +1,12 @@
+package com.Jwt.demo.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.UNAUTHORIZED, reason = "Invalid refresh token")
+public class InvalidRefreshTokenException extends RuntimeException {
+
+	public InvalidRefreshTokenException(String message) {
+		super(message);
+	}
+}
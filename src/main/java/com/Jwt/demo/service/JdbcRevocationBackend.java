@@ -0,0 +1,91 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.RevokedToken;
+import com.Jwt.demo.repository.RevokedTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Shares revocations through the revoked_tokens table in the main database.
+ *
+ * Each instance remembers the highest row id it has seen and only asks for newer rows.
+ * Ids are handed out before commit, so a row can in rare cases become visible after a
+ * higher one; to cover that, every app.revocation.jdbc.full-sync-every polls we reload
+ * all unexpired rows (bounded by the number of live revoked tokens).
+ */
+@Component
+@ConditionalOnProperty(name = "app.revocation.backend", havingValue = "jdbc")
+public class JdbcRevocationBackend implements RevocationBackend {
+
+	@Autowired
+	private RevokedTokenRepository revokedTokenRepository;
+
+	@Value("${app.revocation.jdbc.batch-size:1000}")
+	private int batchSize = 1000;
+
+	@Value("${app.revocation.jdbc.full-sync-every:30}")
+	private int fullSyncEvery = 30;
+
+	private final ReentrantLock pollLock = new ReentrantLock();
+	private long highWaterMark = 0;
+	private int pollsSinceFullSync = 0;
+
+	@Override
+	public void publish(String tokenId, long expiresAtMs) {
+		try {
+			revokedTokenRepository.save(new RevokedToken(tokenId, expiresAtMs));
+		} catch (DataIntegrityViolationException alreadyRevoked) {
+			// Same token revoked twice (e.g. logout retried on another node); the row is already there
+		}
+	}
+
+	@Override
+	@Transactional(readOnly = true)
+	public Map<String, Long> pollNew() {
+		// A lock rather than synchronized: the queries below must not pin a virtual thread
+		pollLock.lock();
+		try {
+			return poll();
+		} finally {
+			pollLock.unlock();
+		}
+	}
+
+	private Map<String, Long> poll() {
+		Map<String, Long> result = new HashMap<>();
+		if (++pollsSinceFullSync >= fullSyncEvery) {
+			pollsSinceFullSync = 0;
+			for (RevokedToken row : revokedTokenRepository.findByExpiresAtGreaterThan(System.currentTimeMillis())) {
+				result.put(row.getTokenId(), row.getExpiresAt());
+				highWaterMark = Math.max(highWaterMark, row.getId());
+			}
+			return result;
+		}
+		List<RevokedToken> rows;
+		do {
+			rows = revokedTokenRepository.findByIdGreaterThanOrderByIdAsc(highWaterMark,
+					PageRequest.of(0, batchSize));
+			for (RevokedToken row : rows) {
+				result.put(row.getTokenId(), row.getExpiresAt());
+				highWaterMark = row.getId();
+			}
+		} while (rows.size() == batchSize);
+		return result;
+	}
+
+	@Override
+	@Transactional
+	public void purgeExpired(long nowMs) {
+		revokedTokenRepository.deleteExpired(nowMs);
+	}
+}
@@ -1,9 +1,11 @@
 package com.Jwt.demo.service;
 
+import com.Jwt.demo.service.AuthMetrics.FilterOutcome;
+import com.Jwt.demo.service.AuthMetrics.FilterStage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.context.SecurityContextHolder;
-import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.security.web.authentication.WebAuthenticationDetailsSource;
 import org.springframework.stereotype.Component;
 import org.springframework.util.StringUtils;
@@ -26,35 +28,142 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 	@Autowired
 	private CustomUserDetailsService userDetailsService;
 
+	@Autowired
+	private VerifiedTokenCache verifiedTokenCache;
+
+	@Autowired
+	private TokenVersionService tokenVersionService;
+
+	@Autowired
+	private AuthMetrics metrics;
+
 	@Override
 	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
 			throws ServletException, IOException {
+		long started = metrics.start();
+		FilterOutcome outcome = authenticate(request);
+		metrics.filter(outcome, started);
+
+		if (outcome == FilterOutcome.REVOKED) {
+			response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token is invalid (logged out)");
+			return; // Stop here, don’t continue
+		}
+		filterChain.doFilter(request, response);
+	}
+
+	// Sets the authentication if the request carries a good token, and says what happened
+	private FilterOutcome authenticate(HttpServletRequest request) {
 		String token = parseJwt(request);
+		if (token == null) {
+			return FilterOutcome.NO_TOKEN;
+		}
+
+		// ✅ Step 1: Check if token is blacklisted
+		long started = metrics.start();
+		boolean revoked = tokenBlacklistService.isTokenBlacklisted(token);
+		metrics.stage(FilterStage.REVOCATION, started);
+		if (revoked) {
+			return FilterOutcome.REVOKED;
+		}
+		if (SecurityContextHolder.getContext().getAuthentication() != null) {
+			return FilterOutcome.ALREADY_AUTHENTICATED;
+		}
 
-		if (token != null) {
-			// ✅ Step 1: Check if token is blacklisted
-			if (tokenBlacklistService.isTokenBlacklisted(token)) {
-				response.sendError(HttpServletResponse.SC_UNAUTHORIZED, "Token is invalid (logged out)");
-				return; // Stop here, don’t continue
+		// ✅ Step 2: Reuse a previous verification of this exact token, otherwise verify it now
+		started = metrics.start();
+		AuthenticatedUser userDetails = verifiedTokenCache.get(token);
+		metrics.stage(FilterStage.CACHE, started);
+		FilterOutcome outcome;
+		if (userDetails != null) {
+			if (!isCurrentVersion(userDetails)) {
+				// All of this user's tokens were revoked since we cached this one
+				verifiedTokenCache.invalidate(token);
+				return FilterOutcome.STALE_VERSION;
 			}
+			outcome = FilterOutcome.AUTHENTICATED_CACHED;
+		} else {
+			Verification verification = verify(token);
+			if (verification.user == null) {
+				return verification.outcome;
+			}
+			userDetails = verification.user;
+			outcome = FilterOutcome.AUTHENTICATED;
+		}
 
-			try {
-				// ✅ Step 2: Normal validation
-				String username = jwtUtil.extractUsername(token);
-				if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-					UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-					if (jwtUtil.validateToken(token, userDetails.getUsername())) {
-						UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-								userDetails, null, userDetails.getAuthorities());
-						auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
-						SecurityContextHolder.getContext().setAuthentication(auth);
-					}
-				}
-			} catch (Exception ignored) {
+		UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
+				userDetails, null, userDetails.getAuthorities());
+		auth.setDetails(new WebAuthenticationDetailsSource().buildDetails(request));
+		SecurityContextHolder.getContext().setAuthentication(auth);
+		return outcome;
+	}
+
+	// Full check: signature, expiry and token version, parsing the token only once.
+	// The principal comes from the signed claims; successful results go into the cache.
+	private Verification verify(String token) {
+		// jjwt decodes, checks the signature and the expiry in one pass, so this is a single stage
+		long started = metrics.start();
+		ParsedToken parsed = jwtUtil.parse(token);
+		metrics.stage(FilterStage.VERIFY, started);
+		if (!parsed.isValid()) {
+			return Verification.rejected(outcomeOf(parsed.getStatus()));
+		}
+		if (parsed.getSubject() == null) {
+			return Verification.rejected(FilterOutcome.UNSUPPORTED);
+		}
+		AuthenticatedUser user = principalFromClaims(parsed);
+		if (user == null) {
+			started = metrics.start();
+			user = loadLegacyPrincipal(parsed);
+			metrics.stage(FilterStage.USER_LOAD, started);
+			if (user == null) {
+				return Verification.rejected(FilterOutcome.UNKNOWN_USER);
 			}
 		}
+		if (!isCurrentVersion(user)) {
+			return Verification.rejected(FilterOutcome.STALE_VERSION);
+		}
+		verifiedTokenCache.put(token, user, parsed.getExpiration());
+		return new Verification(user, FilterOutcome.AUTHENTICATED);
+	}
 
-		filterChain.doFilter(request, response);
+	private boolean isCurrentVersion(AuthenticatedUser user) {
+		long started = metrics.start();
+		boolean current = tokenVersionService.isCurrent(user.getId(), user.getTokenVersion());
+		metrics.stage(FilterStage.TOKEN_VERSION, started);
+		return current;
+	}
+
+	private static FilterOutcome outcomeOf(ParsedToken.Status status) {
+		switch (status) {
+			case EXPIRED: return FilterOutcome.EXPIRED;
+			case BAD_SIGNATURE: return FilterOutcome.BAD_SIGNATURE;
+			case MALFORMED: return FilterOutcome.MALFORMED;
+			default: return FilterOutcome.UNSUPPORTED;
+		}
+	}
+
+	private AuthenticatedUser principalFromClaims(ParsedToken parsed) {
+		Long userId = parsed.getLongClaim(JwtUtil.CLAIM_USER_ID);
+		Long tokenVersion = parsed.getLongClaim(JwtUtil.CLAIM_TOKEN_VERSION);
+		Boolean canManageUsers = parsed.getClaim(JwtUtil.CLAIM_CAN_MANAGE_USERS, Boolean.class);
+		if (userId == null || tokenVersion == null || canManageUsers == null) {
+			return null;
+		}
+		return new AuthenticatedUser(userId, parsed.getSubject(), "", tokenVersion.intValue(), canManageUsers);
+	}
+
+	// Tokens issued before the permission claims existed: look the user up once, as before.
+	// Without a "ver" claim the token counts as version 0; verify() compares it with the current one.
+	private AuthenticatedUser loadLegacyPrincipal(ParsedToken parsed) {
+		AuthenticatedUser user;
+		try {
+			user = (AuthenticatedUser) userDetailsService.loadUserByUsername(parsed.getSubject());
+		} catch (UsernameNotFoundException e) {
+			return null;
+		}
+		Long tokenVersion = parsed.getLongClaim(JwtUtil.CLAIM_TOKEN_VERSION);
+		int version = tokenVersion == null ? 0 : tokenVersion.intValue();
+		return new AuthenticatedUser(user.getId(), user.getUsername(), "", version, user.isCanManageUsers());
 	}
 
 	private String parseJwt(HttpServletRequest request) {
@@ -64,4 +173,18 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
 		}
 		return null;
 	}
+
+	private static final class Verification {
+		private final AuthenticatedUser user;
+		private final FilterOutcome outcome;
+
+		private Verification(AuthenticatedUser user, FilterOutcome outcome) {
+			this.user = user;
+			this.outcome = outcome;
+		}
+
+		static Verification rejected(FilterOutcome outcome) {
+			return new Verification(null, outcome);
+		}
+	}
 }
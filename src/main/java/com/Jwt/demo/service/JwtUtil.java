@@ -1,11 +1,26 @@
 package com.Jwt.demo.service;
 
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.MalformedJwtException;
 import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.SignatureException;
+import io.jsonwebtoken.SigningKeyResolver;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.impl.TextCodec;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import javax.crypto.spec.SecretKeySpec;
+import java.security.Key;
+import java.security.PublicKey;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
@@ -14,8 +29,87 @@ import java.util.function.Function;
 @Component
 public class JwtUtil {
 
+	// Custom claims: user id, the user's token version at issue time and the manage-users permission
+	public static final String CLAIM_USER_ID = "uid";
+	public static final String CLAIM_TOKEN_VERSION = "ver";
+	public static final String CLAIM_CAN_MANAGE_USERS = "mgr";
+
 	private String secret = "change-me-secret";
-	private long jwtExpirationMs = 86400000L; // 1 day
+	private Key legacyKey = hmacKey(secret);
+	private long jwtExpirationMs = 900000L; // 15 minutes; clients renew via /api/auth/refresh
+
+	// Signs with ES256 and verifies by kid. Without it (plain unit tests) tokens fall back to HS256 with the secret.
+	@Autowired(required = false)
+	private SigningKeyService signingKeys;
+
+	// Also accept HS256 tokens (no kid) signed with app.jwt.secret. Off by default: anyone who knows the
+	// secret can forge those. Only turn it on briefly while tokens from before the switch to ES256 expire.
+	@Value("${app.jwt.legacy-hmac.accept:false}")
+	private boolean acceptLegacyHmac = false;
+
+	private final SigningKeyResolver keyResolver = new SigningKeyResolverAdapter() {
+		@Override
+		public Key resolveSigningKey(JwsHeader header, Claims claims) {
+			return verificationKey(header);
+		}
+	};
+
+	// Built once: Jwts.parser() creates a new Jackson ObjectMapper each time, which cost more than
+	// the HS256 check itself. Parsing never modifies the parser, so sharing it between threads is safe.
+	private final JwtParser parser = Jwts.parser().setSigningKeyResolver(keyResolver);
+
+	/**
+	 * Parse and verify the token once. Never throws; a rejected token reports why in its status.
+	 */
+	public ParsedToken parse(String token) {
+		if (!looksLikeJws(token)) {
+			return ParsedToken.invalid(ParsedToken.Status.MALFORMED);
+		}
+		try {
+			Claims claims = extractAllClaims(token);
+			if (claims.getExpiration() == null) {
+				// We only issue tokens with an expiry; anything else is not ours
+				return ParsedToken.invalid(ParsedToken.Status.UNSUPPORTED);
+			}
+			return ParsedToken.valid(claims);
+		} catch (ExpiredJwtException e) {
+			return ParsedToken.invalid(ParsedToken.Status.EXPIRED);
+		} catch (SignatureException e) {
+			return ParsedToken.invalid(ParsedToken.Status.BAD_SIGNATURE);
+		} catch (MalformedJwtException e) {
+			return ParsedToken.invalid(ParsedToken.Status.MALFORMED);
+		} catch (UnsupportedJwtException | IllegalArgumentException e) {
+			return ParsedToken.invalid(ParsedToken.Status.UNSUPPORTED);
+		} catch (RuntimeException e) {
+			// The key lookup failed (e.g. the key table could not be read): the signature cannot be
+			// checked, so the token is rejected with 401 rather than failing the request
+			return ParsedToken.invalid(ParsedToken.Status.BAD_SIGNATURE);
+		}
+	}
+
+	// Cheap shape check (header.payload.signature, base64url only) so garbage never reaches the parser
+	private static boolean looksLikeJws(String token) {
+		if (token == null || token.isEmpty()) {
+			return false;
+		}
+		int dots = 0;
+		int partLength = 0;
+		for (int i = 0; i < token.length(); i++) {
+			char c = token.charAt(i);
+			if (c == '.') {
+				if (partLength == 0) {
+					return false;
+				}
+				dots++;
+				partLength = 0;
+			} else if ((c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_') {
+				partLength++;
+			} else {
+				return false;
+			}
+		}
+		return dots == 2 && partLength > 0;
+	}
 
 	public String extractUsername(String token) {
 		return extractClaim(token, Claims::getSubject);
@@ -31,14 +125,32 @@ public class JwtUtil {
 	}
 
 	private Claims extractAllClaims(String token) {
-		return Jwts.parser()
-				.setSigningKey(secret)
-				.parseClaimsJws(token)
-				.getBody();
+		return parser.parseClaimsJws(token).getBody();
+	}
+
+	// The algorithm is pinned per key type, so a token cannot pick how its own signature is checked
+	private Key verificationKey(JwsHeader header) {
+		String kid = header.getKeyId();
+		if (kid == null) {
+			boolean legacyAllowed = acceptLegacyHmac || signingKeys == null;
+			if (!legacyAllowed || !SignatureAlgorithm.HS256.getValue().equals(header.getAlgorithm())) {
+				throw new UnsupportedJwtException("Token has no key id");
+			}
+			return legacyKey;
+		}
+		if (signingKeys == null || !SigningKeyService.ALGORITHM.getValue().equals(header.getAlgorithm())) {
+			throw new SignatureException("Unexpected algorithm for key id " + kid);
+		}
+		PublicKey key = signingKeys.verificationKey(kid);
+		if (key == null) {
+			throw new SignatureException("Unknown key id " + kid);
+		}
+		return key;
 	}
 
-	private boolean isTokenExpired(String token) {
-		return extractExpiration(token).before(new Date());
+	// Same key derivation jjwt applies to a string secret, so existing HS256 tokens stay valid
+	private static Key hmacKey(String secret) {
+		return new SecretKeySpec(TextCodec.BASE64.decode(secret), SignatureAlgorithm.HS256.getJcaName());
 	}
 
 	public String generateToken(String username) {
@@ -46,21 +158,38 @@ public class JwtUtil {
 		return createToken(claims, username);
 	}
 
+	public String generateToken(AuthenticatedUser user) {
+		Map<String, Object> claims = new HashMap<>();
+		claims.put(CLAIM_USER_ID, user.getId());
+		claims.put(CLAIM_TOKEN_VERSION, user.getTokenVersion());
+		claims.put(CLAIM_CAN_MANAGE_USERS, user.isCanManageUsers());
+		return createToken(claims, user.getUsername());
+	}
+
 	public String createToken(Map<String, Object> claims, String subject) {
-		return Jwts.builder()
+		JwtBuilder builder = Jwts.builder()
 				.setClaims(claims)
 				.setSubject(subject)
 				.setIssuedAt(new Date(System.currentTimeMillis()))
-				.setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs))
-				.signWith(SignatureAlgorithm.HS256, secret)
+				.setExpiration(new Date(System.currentTimeMillis() + jwtExpirationMs));
+		if (signingKeys == null) {
+			return builder.signWith(SignatureAlgorithm.HS256, legacyKey).compact();
+		}
+		SigningKeyService.ActiveKey key = signingKeys.activeKey();
+		return builder
+				.setHeaderParam(JwsHeader.KEY_ID, key.getKid())
+				.signWith(SigningKeyService.ALGORITHM, key.getPrivateKey())
 				.compact();
 	}
 
 	public boolean validateToken(String token, String username) {
-		final String usernameFromToken = extractUsername(token);
-		return (usernameFromToken.equals(username) && !isTokenExpired(token));
+		ParsedToken parsed = parse(token);
+		return parsed.isValid() && parsed.getSubject() != null && parsed.getSubject().equals(username);
 	}
 
-	public void setSecret(String secret) { this.secret = secret; }
+	public void setSecret(String secret) {
+		this.secret = secret;
+		this.legacyKey = hmacKey(secret);
+	}
 	public void setJwtExpirationMs(long jwtExpirationMs) { this.jwtExpirationMs = jwtExpirationMs; }
 }
@@ -0,0 +1,28 @@
+package com.Jwt.demo.service;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Single-instance mode: revocations stay in this JVM only.
+ */
+@Component
+@ConditionalOnProperty(name = "app.revocation.backend", havingValue = "local", matchIfMissing = true)
+public class LocalRevocationBackend implements RevocationBackend {
+
+	@Override
+	public void publish(String tokenId, long expiresAtMs) {
+	}
+
+	@Override
+	public Map<String, Long> pollNew() {
+		return Collections.emptyMap();
+	}
+
+	@Override
+	public void purgeExpired(long nowMs) {
+	}
+}
@@ -0,0 +1,168 @@
+package com.Jwt.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Layman terms:
+ * Every client IP and every username gets a small "bucket" of login attempts that slowly refills.
+ * An empty bucket means the attempt is refused straight away with 429 - before any database
+ * lookup or password hashing - so guessing passwords in bulk gets expensive for the attacker,
+ * not for us.
+ *
+ * Buckets are spread over independent stripes, each with its own lock, so concurrent logins rarely
+ * wait on each other. Each stripe keeps at most its share of app.security.login-rate.max-keys
+ * buckets and drops the least recently used one when full, so memory stays bounded.
+ */
+@Component
+public class LoginRateLimiter {
+
+	private static final int STRIPES = 64;
+
+	@Value("${app.security.login-rate.ip.capacity:20}")
+	private double ipCapacity = 20;
+
+	@Value("${app.security.login-rate.ip.refill-per-second:1}")
+	private double ipRefillPerSecond = 1;
+
+	@Value("${app.security.login-rate.username.capacity:5}")
+	private double usernameCapacity = 5;
+
+	@Value("${app.security.login-rate.username.refill-per-second:0.1}")
+	private double usernameRefillPerSecond = 0.1;
+
+	@Value("${app.security.login-rate.max-keys:100000}")
+	private int maxKeys = 100000;
+
+	private Stripe[] stripes;
+
+	private final AtomicLong allowed = new AtomicLong();
+	private final AtomicLong rejectedByIp = new AtomicLong();
+	private final AtomicLong rejectedByUsername = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	@PostConstruct
+	void init() {
+		int keysPerStripe = Math.max(1, maxKeys / STRIPES);
+		stripes = new Stripe[STRIPES];
+		for (int i = 0; i < STRIPES; i++) {
+			stripes[i] = new Stripe(keysPerStripe);
+		}
+	}
+
+	/**
+	 * Take one attempt from both the IP's and the username's bucket. False means: refuse with 429.
+	 */
+	public boolean tryAcquire(String clientIp, String username) {
+		return acquire(clientIp, username) == 0;
+	}
+
+	/**
+	 * Like tryAcquire, but on refusal tells how long to wait: 0 means allowed, otherwise the whole
+	 * seconds until the empty bucket holds an attempt again (the value for a Retry-After header).
+	 */
+	public long acquire(String clientIp, String username) {
+		double waitSeconds = take("ip:" + clientIp, ipCapacity, ipRefillPerSecond);
+		if (waitSeconds > 0) {
+			rejectedByIp.incrementAndGet();
+			return retryAfterSeconds(waitSeconds);
+		}
+		if (username != null) {
+			waitSeconds = take("user:" + username, usernameCapacity, usernameRefillPerSecond);
+			if (waitSeconds > 0) {
+				rejectedByUsername.incrementAndGet();
+				return retryAfterSeconds(waitSeconds);
+			}
+		}
+		allowed.incrementAndGet();
+		return 0;
+	}
+
+	private static long retryAfterSeconds(double waitSeconds) {
+		return Math.max(1, (long) Math.ceil(waitSeconds));
+	}
+
+	// Returns 0 when an attempt was taken, otherwise the seconds until the next one refills
+	private double take(String rawKey, double capacity, double refillPerSecond) {
+		// Fixed-size key however long the client input, and distinct names never share a bucket
+		String key = TokenDigests.sha256Base64(rawKey);
+		Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+		long now = System.nanoTime();
+		stripe.lock.lock();
+		try {
+			Bucket bucket = stripe.buckets.get(key);
+			if (bucket == null) {
+				bucket = new Bucket(capacity, now);
+				stripe.buckets.put(key, bucket);
+				stripe.evictOverflow();
+			} else {
+				double refill = (now - bucket.lastRefillNanos) / 1_000_000_000.0 * refillPerSecond;
+				bucket.tokens = Math.min(capacity, bucket.tokens + refill);
+				bucket.lastRefillNanos = now;
+			}
+			if (bucket.tokens < 1) {
+				return (1 - bucket.tokens) / refillPerSecond;
+			}
+			bucket.tokens -= 1;
+			return 0;
+		} finally {
+			stripe.lock.unlock();
+		}
+	}
+
+	// Metrics
+	public long getAllowed() { return allowed.get(); }
+	public long getRejectedByIp() { return rejectedByIp.get(); }
+	public long getRejectedByUsername() { return rejectedByUsername.get(); }
+	public long getEvictions() { return evictions.get(); }
+
+	public int size() {
+		int size = 0;
+		for (Stripe stripe : stripes) {
+			stripe.lock.lock();
+			try {
+				size += stripe.buckets.size();
+			} finally {
+				stripe.lock.unlock();
+			}
+		}
+		return size;
+	}
+
+	private final class Stripe {
+		private final ReentrantLock lock = new ReentrantLock();
+		private final LinkedHashMap<String, Bucket> buckets = new LinkedHashMap<>(64, 0.75f, true);
+		private final int maxKeys;
+
+		private Stripe(int maxKeys) {
+			this.maxKeys = maxKeys;
+		}
+
+		// Caller holds the lock
+		private void evictOverflow() {
+			Iterator<Map.Entry<String, Bucket>> eldest = buckets.entrySet().iterator();
+			while (buckets.size() > maxKeys && eldest.hasNext()) {
+				eldest.next();
+				eldest.remove();
+				evictions.incrementAndGet();
+			}
+		}
+	}
+
+	private static final class Bucket {
+		private double tokens;
+		private long lastRefillNanos;
+
+		private Bucket(double tokens, long lastRefillNanos) {
+			this.tokens = tokens;
+			this.lastRefillNanos = lastRefillNanos;
+		}
+	}
+}
@@ -0,0 +1,65 @@
+package com.Jwt.demo.service;
+
+import io.jsonwebtoken.Claims;
+
+import java.util.Collections;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Result of parsing and verifying a JWT exactly once.
+ * Either the token is valid and all claims are available, or status says why it was rejected.
+ * Instances are immutable.
+ */
+public final class ParsedToken {
+
+	public enum Status {
+		VALID,
+		MALFORMED,
+		BAD_SIGNATURE,
+		EXPIRED,
+		UNSUPPORTED
+	}
+
+	private final Status status;
+	private final String subject;
+	private final Date issuedAt;
+	private final Date expiration;
+	private final Map<String, Object> claims;
+
+	private ParsedToken(Status status, String subject, Date issuedAt, Date expiration, Map<String, Object> claims) {
+		this.status = status;
+		this.subject = subject;
+		this.issuedAt = issuedAt;
+		this.expiration = expiration;
+		this.claims = claims;
+	}
+
+	static ParsedToken valid(Claims claims) {
+		return new ParsedToken(Status.VALID, claims.getSubject(), claims.getIssuedAt(), claims.getExpiration(),
+				Collections.unmodifiableMap(new HashMap<>(claims)));
+	}
+
+	static ParsedToken invalid(Status status) {
+		return new ParsedToken(status, null, null, null, Collections.<String, Object>emptyMap());
+	}
+
+	public boolean isValid() { return status == Status.VALID; }
+	public Status getStatus() { return status; }
+	public String getSubject() { return subject; }
+	public Date getIssuedAt() { return issuedAt == null ? null : new Date(issuedAt.getTime()); }
+	public Date getExpiration() { return expiration == null ? null : new Date(expiration.getTime()); }
+	public Map<String, Object> getClaims() { return claims; }
+
+	// JSON numbers come back as Integer or Long depending on size
+	public Long getLongClaim(String name) {
+		Object value = claims.get(name);
+		return value instanceof Number ? ((Number) value).longValue() : null;
+	}
+
+	public <T> T getClaim(String name, Class<T> type) {
+		Object value = claims.get(name);
+		return type.isInstance(value) ? type.cast(value) : null;
+	}
+}
@@ -0,0 +1,16 @@
+package com.Jwt.demo.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown when the password hashing pool is saturated. Answered with 503 so clients back off
+ * instead of every request thread queueing up behind BCrypt.
+ */
+@ResponseStatus(value = HttpStatus.SERVICE_UNAVAILABLE, reason = "Too many password checks in progress, retry shortly")
+public class PasswordHashingBusyException extends RuntimeException {
+
+	public PasswordHashingBusyException(String message) {
+		super(message);
+	}
+}
@@ -0,0 +1,241 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.Project;
+import com.Jwt.demo.Model.User;
+import com.Jwt.demo.payload.AssignmentRequest;
+import com.Jwt.demo.payload.AssignmentResult;
+import com.Jwt.demo.payload.BudgetSummary;
+import com.Jwt.demo.payload.ProjectFilter;
+import com.Jwt.demo.payload.ProjectPage;
+import com.Jwt.demo.payload.ProjectRequest;
+import com.Jwt.demo.payload.ProjectResponse;
+import com.Jwt.demo.repository.ProjectRepository;
+import com.Jwt.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.stream.Collectors;
+
+/**
+ * Layman terms:
+ * Create, read, update and delete projects and who is assigned to them.
+ *
+ * Every read loads a project together with its assignees in the same query, so a page of
+ * projects costs two queries (ids of the page, then the projects with their users) no matter
+ * how many projects or assignees it holds. Search works the same way with filters applied.
+ *
+ * Budget statistics (per client, per month) are GROUP BY queries: the database adds up the
+ * budgets and only the totals come back.
+ *
+ * Bulk assign/unassign writes project_users directly with one INSERT ... SELECT or one DELETE
+ * for all pairs, instead of loading each project's assignee set and changing it row by row.
+ */
+@Service
+public class ProjectService {
+
+	public static final int DEFAULT_PAGE_SIZE = 50;
+	public static final int MAX_PAGE_SIZE = 500;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	/**
+	 * One page of projects ordered by id, starting after the given id (null = from the start).
+	 */
+	@Transactional(readOnly = true)
+	public ProjectPage findPage(Long afterId, int size) {
+		int pageSize = pageSize(size);
+		return toPage(projectRepository.findIdsAfter(afterId == null ? 0L : afterId, PageRequest.of(0, pageSize)), pageSize);
+	}
+
+	/**
+	 * Like findPage, but only projects matching the filter.
+	 */
+	@Transactional(readOnly = true)
+	public ProjectPage search(ProjectFilter filter, Long afterId, int size) {
+		int pageSize = pageSize(size);
+		return toPage(projectRepository.searchIds(filter, afterId == null ? 0L : afterId, pageSize), pageSize);
+	}
+
+	/**
+	 * Count, total and average budget per client (projects without a client are grouped under null).
+	 */
+	@Transactional(readOnly = true)
+	public List<BudgetSummary> budgetByClient(ProjectFilter filter) {
+		return projectRepository.budgetByClient(filter);
+	}
+
+	/**
+	 * Count, total and average budget per month of the start date (projects without one are left out).
+	 */
+	@Transactional(readOnly = true)
+	public List<BudgetSummary> budgetByMonth(ProjectFilter filter) {
+		return projectRepository.budgetByMonth(filter);
+	}
+
+	@Transactional(readOnly = true)
+	public Optional<ProjectResponse> findById(Long id) {
+		return projectRepository.findWithAssigneesById(id).map(ProjectResponse::from);
+	}
+
+	@Transactional
+	public ProjectResponse create(ProjectRequest request) {
+		Project project = new Project();
+		apply(project, request);
+		return ProjectResponse.from(projectRepository.save(project));
+	}
+
+	/**
+	 * Empty if there is no project with this id.
+	 */
+	@Transactional
+	public Optional<ProjectResponse> update(Long id, ProjectRequest request) {
+		return projectRepository.findWithAssigneesById(id).map(project -> {
+			apply(project, request);
+			return ProjectResponse.from(project);
+		});
+	}
+
+	/**
+	 * False if there is no project with this id.
+	 */
+	@Transactional
+	public boolean delete(Long id) {
+		Optional<Project> project = projectRepository.findById(id);
+		project.ifPresent(projectRepository::delete);
+		return project.isPresent();
+	}
+
+	/**
+	 * Add every listed user to every listed project; pairs that exist already are left alone.
+	 * Always four statements: lock the projects, check the users, read the existing pairs, insert the rest.
+	 * Any unknown project or user id rejects the whole request.
+	 */
+	@Transactional
+	public AssignmentResult assign(AssignmentRequest request) {
+		Set<Long> projectIds = lockProjects(request.getProjectIds());
+		if (projectIds.size() != request.getProjectIds().size()) {
+			throw new UnknownProjectsException(missing(request.getProjectIds(), projectIds));
+		}
+		Set<Long> userIds = new TreeSet<>(userRepository.findExistingIds(request.getUserIds()));
+		if (userIds.size() != request.getUserIds().size()) {
+			throw new UnknownUsersException(missing(request.getUserIds(), userIds));
+		}
+		Map<Long, Set<Long>> existing = findAssignments(projectIds, userIds);
+		AssignmentResult result = new AssignmentResult(projectIds.size() * userIds.size());
+		for (Long projectId : projectIds) {
+			Set<Long> assigned = existing.getOrDefault(projectId, Collections.emptySet());
+			List<Long> added = userIds.stream().filter(userId -> !assigned.contains(userId)).collect(Collectors.toList());
+			if (!added.isEmpty()) {
+				result.addChange(projectId, added);
+			}
+		}
+		if (result.getChangedPairs() > 0) {
+			projectRepository.insertAssignments(projectIds, userIds);
+		}
+		return result;
+	}
+
+	/**
+	 * Remove every listed user from every listed project. Unknown ids and pairs that do not exist are no-ops.
+	 * At most three statements: lock the projects, read the existing pairs, delete them.
+	 */
+	@Transactional
+	public AssignmentResult unassign(AssignmentRequest request) {
+		AssignmentResult result = new AssignmentResult(request.getProjectIds().size() * request.getUserIds().size());
+		Set<Long> projectIds = lockProjects(request.getProjectIds());
+		if (projectIds.isEmpty()) {
+			return result;
+		}
+		Map<Long, Set<Long>> existing = findAssignments(projectIds, request.getUserIds());
+		for (Long projectId : projectIds) {
+			Set<Long> removed = existing.get(projectId);
+			if (removed != null) {
+				result.addChange(projectId, new ArrayList<>(removed));
+			}
+		}
+		if (result.getChangedPairs() > 0) {
+			projectRepository.deleteAssignments(projectIds, request.getUserIds());
+		}
+		return result;
+	}
+
+	// Concurrent bulk changes to the same projects run one after the other, so each report is exact
+	private Set<Long> lockProjects(Set<Long> ids) {
+		Set<Long> locked = new TreeSet<>();
+		projectRepository.lockAllById(ids).forEach(project -> locked.add(project.getId()));
+		return locked;
+	}
+
+	// Existing pairs, grouped by project, user ids in ascending order
+	private Map<Long, Set<Long>> findAssignments(Set<Long> projectIds, Set<Long> userIds) {
+		Map<Long, Set<Long>> assignments = new HashMap<>();
+		for (Object[] row : projectRepository.findAssignments(projectIds, userIds)) {
+			assignments.computeIfAbsent(((Number) row[0]).longValue(), id -> new TreeSet<>())
+					.add(((Number) row[1]).longValue());
+		}
+		return assignments;
+	}
+
+	private static Set<Long> missing(Set<Long> requested, Set<Long> found) {
+		Set<Long> missing = new TreeSet<>(requested);
+		missing.removeAll(found);
+		return missing;
+	}
+
+	private static int pageSize(int size) {
+		return Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+	}
+
+	// Second step of every listing: load the page's projects with their assignees in one query
+	private ProjectPage toPage(List<Long> ids, int pageSize) {
+		if (ids.isEmpty()) {
+			return new ProjectPage(Collections.emptyList(), null);
+		}
+		List<ProjectResponse> projects = projectRepository.findWithAssigneesByIdIn(ids).stream()
+				.map(ProjectResponse::from)
+				.collect(Collectors.toList());
+		Long nextCursor = ids.size() == pageSize ? ids.get(ids.size() - 1) : null;
+		return new ProjectPage(projects, nextCursor);
+	}
+
+	private void apply(Project project, ProjectRequest request) {
+		project.setTitle(request.getTitle());
+		project.setLocation(request.getLocation());
+		project.setBudget(request.getBudget());
+		project.setClient(request.getClient());
+		project.setStartDate(request.getStartDate());
+		project.setEndDate(request.getEndDate());
+		if (request.getAssignedUserIds() != null) {
+			project.setAssignedUsers(loadUsers(request.getAssignedUserIds()));
+		}
+	}
+
+	// One query for all ids; any id that does not exist rejects the whole request
+	private Set<User> loadUsers(Set<Long> userIds) {
+		if (userIds.isEmpty()) {
+			return new HashSet<>();
+		}
+		Set<User> users = new HashSet<>(userRepository.findAllById(userIds));
+		if (users.size() != userIds.size()) {
+			Set<Long> found = new HashSet<>();
+			users.forEach(user -> found.add(user.getId()));
+			throw new UnknownUsersException(missing(userIds, found));
+		}
+		return users;
+	}
+}
@@ -0,0 +1,81 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.RefreshToken;
+import com.Jwt.demo.repository.RefreshTokenRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Layman terms:
+ * Access tokens now live only a few minutes. To stay logged in, the client trades its refresh
+ * token for a new access token plus a new refresh token at /api/auth/refresh.
+ *
+ * - Refresh tokens are random strings; the database only keeps their SHA-256 hash.
+ * - Every refresh token works once. Presenting an already-used one means it was copied, so all
+ *   refresh tokens of that user are revoked (the real owner simply logs in again).
+ */
+@Service
+public class RefreshTokenService {
+
+	private final SecureRandom random = new SecureRandom();
+
+	@Autowired
+	private RefreshTokenRepository refreshTokenRepository;
+
+	@Value("${app.jwt.refresh-expiration-ms:1209600000}")
+	private long refreshExpirationMs = 1209600000L;
+
+	/**
+	 * Create a new refresh token for the user and return it (the only time it is visible).
+	 */
+	@Transactional
+	public String issue(Long userId) {
+		byte[] bytes = new byte[32];
+		random.nextBytes(bytes);
+		String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+		refreshTokenRepository.save(new RefreshToken(userId, TokenDigests.sha256Base64(token),
+				System.currentTimeMillis() + refreshExpirationMs));
+		return token;
+	}
+
+	/**
+	 * Use up a refresh token and return the id of the user it belongs to.
+	 */
+	@Transactional(noRollbackFor = InvalidRefreshTokenException.class)
+	public Long consume(String token) {
+		RefreshToken stored = refreshTokenRepository.findByTokenHash(TokenDigests.sha256Base64(token))
+				.orElseThrow(() -> new InvalidRefreshTokenException("Unknown refresh token"));
+		if (stored.isRevoked() || refreshTokenRepository.revoke(stored.getId()) == 0) {
+			// Reuse of a rotated token: treat the whole family as stolen
+			refreshTokenRepository.revokeAllForUser(stored.getUserId());
+			throw new InvalidRefreshTokenException("Refresh token already used");
+		}
+		if (stored.getExpiresAt() <= System.currentTimeMillis()) {
+			throw new InvalidRefreshTokenException("Refresh token expired");
+		}
+		return stored.getUserId();
+	}
+
+	@Transactional
+	public void revoke(String token) {
+		refreshTokenRepository.findByTokenHash(TokenDigests.sha256Base64(token))
+				.ifPresent(stored -> refreshTokenRepository.revoke(stored.getId()));
+	}
+
+	@Transactional
+	public void revokeAllForUser(Long userId) {
+		refreshTokenRepository.revokeAllForUser(userId);
+	}
+
+	@Scheduled(fixedDelayString = "${app.jwt.refresh-purge-interval-ms:3600000}")
+	@Transactional
+	public void purgeExpired() {
+		refreshTokenRepository.deleteExpired(System.currentTimeMillis());
+	}
+}
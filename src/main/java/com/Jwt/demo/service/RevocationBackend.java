@@ -0,0 +1,26 @@
+package com.Jwt.demo.service;
+
+import java.util.Map;
+
+/**
+ * Where revocations are shared between app instances.
+ * The hot path never calls this: TokenBlacklistService publishes on logout and pulls
+ * new revocations in the background, so checking a token stays a local memory lookup.
+ */
+public interface RevocationBackend {
+
+	/**
+	 * Make a revocation visible to the other instances.
+	 */
+	void publish(String tokenId, long expiresAtMs);
+
+	/**
+	 * Revocations published (by any instance) since the previous call, as token id to expiry.
+	 */
+	Map<String, Long> pollNew();
+
+	/**
+	 * Forget revocations whose token has expired.
+	 */
+	void purgeExpired(long nowMs);
+}
@@ -0,0 +1,70 @@
+package com.Jwt.demo.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over token digests, used in front of the exact revocation map.
+ * A "no" answer is always correct; a "maybe" answer must be confirmed against the map.
+ * Bit updates are lock-free so lookups can run while another thread adds.
+ *
+ * Input is already a SHA-256 digest, so the two probe hashes are simply read out of its bytes
+ * (double hashing: index_i = h1 + i * h2).
+ */
+public class RevocationBloomFilter {
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashCount;
+	private final long capacity;
+
+	public RevocationBloomFilter(long expectedInsertions, double falsePositiveRate) {
+		long n = Math.max(1, expectedInsertions);
+		long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int words = (int) Math.max(1, (m + 63) / 64);
+		this.bits = new AtomicLongArray(words);
+		this.bitCount = (long) words * 64;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+		this.capacity = n;
+	}
+
+	public void put(byte[] digest) {
+		long h1 = readLong(digest, 0);
+		long h2 = readLong(digest, 8);
+		for (int i = 0; i < hashCount; i++) {
+			long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+			int word = (int) (index >>> 6);
+			long mask = 1L << index;
+			long current;
+			do {
+				current = bits.get(word);
+				if ((current & mask) != 0) {
+					break;
+				}
+			} while (!bits.compareAndSet(word, current, current | mask));
+		}
+	}
+
+	public boolean mightContain(byte[] digest) {
+		long h1 = readLong(digest, 0);
+		long h2 = readLong(digest, 8);
+		for (int i = 0; i < hashCount; i++) {
+			long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+			if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public long getCapacity() { return capacity; }
+	public long getBitCount() { return bitCount; }
+	public int getHashCount() { return hashCount; }
+
+	private static long readLong(byte[] bytes, int offset) {
+		long value = 0;
+		for (int i = 0; i < 8; i++) {
+			value = (value << 8) | (bytes[offset + i] & 0xFFL);
+		}
+		return value;
+	}
+}
@@ -1,14 +1,14 @@
 package com.Jwt.demo.service;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 
@@ -21,19 +21,59 @@ import org.springframework.security.web.authentication.UsernamePasswordAuthentic
  * - @Configuration + @Bean: Define Spring-managed objects (beans).
  * - PasswordEncoder (BCrypt): Safely stores passwords (hashed, not plain text).
  * - SecurityFilterChain: The chain of filters (like checkpoints) for every request.
+ * - @EnableGlobalMethodSecurity: Lets controllers guard single methods with @PreAuthorize.
  */
 @Configuration
+@EnableGlobalMethodSecurity(prePostEnabled = true)
 public class SecurityConfig {
 
+	private static final String PROMETHEUS = "/actuator/prometheus";
+
 	@Autowired
 	private CustomUserDetailsService userDetailsService;
 
 	@Autowired
 	private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+	@Autowired
+	private AuthMetrics authMetrics;
+
+	// Set management.server.port (bound to an internal address) to scrape metrics without a token
+	@Value("${management.server.port:-1}")
+	private int managementPort;
+
+	@Value("${app.security.hashing.threads:0}")
+	private int hashingThreads;
+
+	@Value("${app.security.hashing.queue-capacity:64}")
+	private int hashingQueueCapacity;
+
+	@Value("${app.security.hashing.timeout-ms:5000}")
+	private long hashingTimeoutMs;
+
+	// Same value on every instance; 0 = calibrate on this machine to app.security.bcrypt.target-ms (to find the value)
+	@Value("${app.security.bcrypt.strength:12}")
+	private int bcryptStrength;
+
+	@Value("${app.security.bcrypt.target-ms:250}")
+	private long bcryptTargetMs;
+
+	@Value("${app.security.bcrypt.min-strength:10}")
+	private int bcryptMinStrength;
+
+	@Value("${app.security.bcrypt.max-strength:14}")
+	private int bcryptMaxStrength;
+
+	// BCrypt runs on its own bounded pool, never on the web threads (see BoundedPasswordEncoder)
 	@Bean
-	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+	public BoundedPasswordEncoder passwordEncoder() {
+		AdaptiveBCryptPasswordEncoder bcrypt = bcryptStrength > 0
+				? new AdaptiveBCryptPasswordEncoder(bcryptStrength)
+				: AdaptiveBCryptPasswordEncoder.calibrated(bcryptTargetMs, bcryptMinStrength, bcryptMaxStrength);
+		int threads = hashingThreads > 0 ? hashingThreads : Runtime.getRuntime().availableProcessors();
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(bcrypt, threads, hashingQueueCapacity, hashingTimeoutMs);
+		encoder.setMetrics(authMetrics);
+		return encoder;
 	}
 
 	@Bean
@@ -53,11 +93,17 @@ public class SecurityConfig {
 			// Public endpoints (no token needed)
 			.antMatchers(
 				"/api/auth/**",
+				"/.well-known/jwks.json",
+				"/actuator/health",
 				"/h2-console/**",
 				"/v3/api-docs/**",
 				"/swagger-ui/**",
 				"/swagger-ui.html"
 			).permitAll()
+			// Metrics: open only on the internal management port, otherwise for user managers
+			.requestMatchers(request -> managementPort > 0 && request.getLocalPort() == managementPort
+					&& PROMETHEUS.equals(request.getServletPath())).permitAll()
+			.antMatchers(PROMETHEUS).hasAuthority(AuthenticatedUser.MANAGE_USERS)
 			// Everything else requires a valid JWT token
 			.anyRequest().authenticated();
 
@@ -0,0 +1,101 @@
+package com.Jwt.demo.service;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Layman terms:
+ * Encrypts signing private keys before they are written to the signing_keys table, so a copy of
+ * the database or a backup is not enough to mint tokens. The key-encryption key (KEK) comes from
+ * app.jwt.keys.kek (base64 of 16, 24 or 32 random bytes), normally set through the APP_JWT_KEYS_KEK
+ * environment variable; it is never stored in the database.
+ *
+ * Stored format: one version byte, the 12-byte IV, then AES-GCM ciphertext and tag. The key id is
+ * authenticated too, so an encrypted key cannot be moved to another row.
+ */
+final class SigningKeyCipher {
+
+	private static final byte FORMAT_AES_GCM = 1;
+	// Unencrypted PKCS#8 is a DER SEQUENCE
+	private static final byte FORMAT_PLAINTEXT_DER = 0x30;
+	private static final int IV_BYTES = 12;
+	private static final int TAG_BITS = 128;
+
+	private final SecretKeySpec kek;
+	private final SecureRandom random = new SecureRandom();
+
+	private SigningKeyCipher(SecretKeySpec kek) {
+		this.kek = kek;
+	}
+
+	/**
+	 * Cipher for a base64 KEK. Without one, keys are stored in plaintext only if that is explicitly allowed.
+	 */
+	static SigningKeyCipher of(String kekBase64, boolean allowPlaintext) {
+		if (kekBase64 == null || kekBase64.trim().isEmpty()) {
+			if (!allowPlaintext) {
+				throw new IllegalStateException("app.jwt.keys.kek is not set: provide a base64 AES key (e.g. `openssl rand -base64 32`) "
+						+ "through APP_JWT_KEYS_KEK, or set app.jwt.keys.allow-plaintext=true to store signing keys unencrypted");
+			}
+			return new SigningKeyCipher(null);
+		}
+		byte[] key = Base64.getDecoder().decode(kekBase64.trim());
+		if (key.length != 16 && key.length != 24 && key.length != 32) {
+			throw new IllegalStateException("app.jwt.keys.kek must be 16, 24 or 32 bytes, got " + key.length);
+		}
+		return new SigningKeyCipher(new SecretKeySpec(key, "AES"));
+	}
+
+	boolean isEncrypting() {
+		return kek != null;
+	}
+
+	byte[] seal(String kid, byte[] privateKey) {
+		if (kek == null) {
+			return privateKey;
+		}
+		try {
+			byte[] iv = new byte[IV_BYTES];
+			random.nextBytes(iv);
+			Cipher cipher = cipher(Cipher.ENCRYPT_MODE, kid, iv);
+			byte[] sealed = cipher.doFinal(privateKey);
+			byte[] stored = new byte[1 + IV_BYTES + sealed.length];
+			stored[0] = FORMAT_AES_GCM;
+			System.arraycopy(iv, 0, stored, 1, IV_BYTES);
+			System.arraycopy(sealed, 0, stored, 1 + IV_BYTES, sealed.length);
+			return stored;
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Could not encrypt signing key " + kid, e);
+		}
+	}
+
+	/**
+	 * The PKCS#8 private key. Rows written before encryption was enabled are read as they are.
+	 */
+	byte[] open(String kid, byte[] stored) throws GeneralSecurityException {
+		if (stored.length > 0 && stored[0] == FORMAT_PLAINTEXT_DER) {
+			return stored;
+		}
+		if (stored.length <= 1 + IV_BYTES || stored[0] != FORMAT_AES_GCM) {
+			throw new GeneralSecurityException("Unknown private key format for signing key " + kid);
+		}
+		if (kek == null) {
+			throw new GeneralSecurityException("Signing key " + kid + " is encrypted but app.jwt.keys.kek is not set");
+		}
+		Cipher cipher = cipher(Cipher.DECRYPT_MODE, kid, Arrays.copyOfRange(stored, 1, 1 + IV_BYTES));
+		return cipher.doFinal(stored, 1 + IV_BYTES, stored.length - 1 - IV_BYTES);
+	}
+
+	private Cipher cipher(int mode, String kid, byte[] iv) throws GeneralSecurityException {
+		Cipher cipher = Cipher.getInstance("AES/GCM/NoPadding");
+		cipher.init(mode, kek, new GCMParameterSpec(TAG_BITS, iv));
+		cipher.updateAAD(kid.getBytes(StandardCharsets.UTF_8));
+		return cipher;
+	}
+}
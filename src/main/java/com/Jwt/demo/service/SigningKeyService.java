@@ -0,0 +1,290 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.SigningKey;
+import com.Jwt.demo.repository.SigningKeyRepository;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.math.BigInteger;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Layman terms:
+ * Access tokens are signed with an ES256 private key and carry the key's id ("kid") in their header.
+ * Anyone can check them with the matching public key, published at /.well-known/jwks.json, so other
+ * services no longer need our secret (or a call to us) to trust a token.
+ *
+ * Keys live in the signing_keys table so all instances share them:
+ * - the newest key signs; a new one is created once it is older than app.jwt.keys.rotation-interval-ms,
+ * - older keys are kept for verification until every token they signed has expired, then deleted,
+ * - every instance reloads the table each app.jwt.keys.refresh-ms, and right away (at most once a second)
+ *   when it sees a kid it does not know yet, e.g. a key another instance just created.
+ *
+ * Public keys are decoded once per reload into a map by kid; verifying a token is one map lookup.
+ *
+ * Private keys are stored encrypted with app.jwt.keys.kek (see SigningKeyCipher). Startup fails
+ * without it unless app.jwt.keys.allow-plaintext=true.
+ */
+@Service
+public class SigningKeyService {
+
+	public static final SignatureAlgorithm ALGORITHM = SignatureAlgorithm.ES256;
+
+	private static final Logger log = LoggerFactory.getLogger(SigningKeyService.class);
+
+	// Limits reloads triggered by unknown kids, so made-up kids cannot hammer the database
+	private static final long MISS_RELOAD_INTERVAL_MS = 1000L;
+
+	// P-256 coordinates are 32 bytes
+	private static final int COORDINATE_BYTES = 32;
+
+	private final SecureRandom random = new SecureRandom();
+
+	@Autowired
+	private SigningKeyRepository signingKeyRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Value("${app.jwt.keys.rotation-interval-ms:86400000}")
+	private long rotationIntervalMs = 86400000L;
+
+	@Value("${app.jwt.keys.refresh-ms:60000}")
+	private long refreshMs = 60000L;
+
+	@Value("${app.jwt.expiration-ms:900000}")
+	private long tokenLifetimeMs = 900000L;
+
+	@Value("${app.jwt.keys.kek:}")
+	private String kek;
+
+	@Value("${app.jwt.keys.allow-plaintext:false}")
+	private boolean allowPlaintext;
+
+	private SigningKeyCipher cipher;
+
+	private volatile KeySet keys = KeySet.EMPTY;
+
+	private final AtomicLong lastReloadMs = new AtomicLong();
+
+	@PostConstruct
+	void init() {
+		cipher = SigningKeyCipher.of(kek, allowPlaintext);
+		if (!cipher.isEncrypting()) {
+			log.warn("Signing keys are stored unencrypted (app.jwt.keys.allow-plaintext=true)");
+		}
+		rotate();
+	}
+
+	/**
+	 * Create a new key if the newest one is due for rotation, drop keys nobody can need any more
+	 * and reload the in-memory key set.
+	 */
+	@Scheduled(fixedDelayString = "${app.jwt.keys.refresh-ms:60000}", initialDelayString = "${app.jwt.keys.refresh-ms:60000}")
+	public void rotate() {
+		long now = System.currentTimeMillis();
+		transactionTemplate.executeWithoutResult(status -> {
+			signingKeyRepository.deleteRetired(now - retentionMs());
+			List<SigningKey> stored = signingKeyRepository.findByCreatedAtGreaterThanOrderByCreatedAtDesc(now - rotationIntervalMs);
+			if (stored.isEmpty()) {
+				// Two instances may both get here; both keys are valid, each just signs with its newest
+				SigningKey created = generate(now);
+				signingKeyRepository.save(created);
+				log.info("Created signing key {}", created.getKid());
+			}
+		});
+		reload();
+	}
+
+	/**
+	 * The key new tokens are signed with.
+	 */
+	public ActiveKey activeKey() {
+		KeySet current = keys;
+		if (current.active == null) {
+			throw new IllegalStateException("No signing key loaded");
+		}
+		return current.active;
+	}
+
+	/**
+	 * Public key for a kid, or null if there is no such (non-retired) key.
+	 */
+	public PublicKey verificationKey(String kid) {
+		PublicKey key = keys.verifiers.get(kid);
+		if (key != null) {
+			return key;
+		}
+		long last = lastReloadMs.get();
+		long now = System.currentTimeMillis();
+		if (now - last >= MISS_RELOAD_INTERVAL_MS && lastReloadMs.compareAndSet(last, now)) {
+			reload();
+		}
+		return keys.verifiers.get(kid);
+	}
+
+	/**
+	 * The JSON Web Key Set with all public keys that can still verify a live token.
+	 */
+	public Map<String, Object> jwks() {
+		return keys.jwks;
+	}
+
+	/**
+	 * Load the key table again. A failed reload keeps the keys loaded before, so verifying tokens
+	 * (which may trigger a reload for an unknown kid) never fails because of it.
+	 */
+	public void reload() {
+		lastReloadMs.set(System.currentTimeMillis());
+		KeySet loaded;
+		try {
+			List<SigningKey> stored = signingKeyRepository.findByCreatedAtGreaterThanOrderByCreatedAtDesc(
+					System.currentTimeMillis() - retentionMs());
+			loaded = KeySet.of(stored, cipher);
+		} catch (RuntimeException e) {
+			log.error("Could not reload signing keys, keeping the {} loaded before", keys.verifiers.size(), e);
+			return;
+		}
+		if (loaded.active == null && keys.active != null) {
+			log.error("No usable signing key after reload, keeping the keys loaded before");
+			return;
+		}
+		keys = loaded;
+	}
+
+	// A key may sign for rotation + refresh (until every instance noticed the rotation),
+	// and its last tokens stay valid for one token lifetime after that
+	private long retentionMs() {
+		return rotationIntervalMs + refreshMs + tokenLifetimeMs;
+	}
+
+	private SigningKey generate(long now) {
+		try {
+			KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+			generator.initialize(new ECGenParameterSpec("secp256r1"), random);
+			KeyPair pair = generator.generateKeyPair();
+			byte[] kidBytes = new byte[12];
+			random.nextBytes(kidBytes);
+			String kid = TokenDigests.toBase64(kidBytes);
+			return new SigningKey(kid, ALGORITHM.getValue(),
+					pair.getPublic().getEncoded(), cipher.seal(kid, pair.getPrivate().getEncoded()), now);
+		} catch (GeneralSecurityException e) {
+			throw new IllegalStateException("Could not generate signing key", e);
+		}
+	}
+
+	public static final class ActiveKey {
+		private final String kid;
+		private final PrivateKey privateKey;
+
+		private ActiveKey(String kid, PrivateKey privateKey) {
+			this.kid = kid;
+			this.privateKey = privateKey;
+		}
+
+		public String getKid() { return kid; }
+		public PrivateKey getPrivateKey() { return privateKey; }
+	}
+
+	// Immutable snapshot, swapped as a whole on reload so readers never need a lock
+	private static final class KeySet {
+		static final KeySet EMPTY = new KeySet(null, Collections.emptyMap(), jwksOf(Collections.emptyList()));
+
+		final ActiveKey active;
+		final Map<String, PublicKey> verifiers;
+		final Map<String, Object> jwks;
+
+		private KeySet(ActiveKey active, Map<String, PublicKey> verifiers, Map<String, Object> jwks) {
+			this.active = active;
+			this.verifiers = verifiers;
+			this.jwks = jwks;
+		}
+
+		// stored is newest first. A row that cannot be decoded or decrypted (corrupt bytes, another KEK)
+		// is logged and skipped, so one bad row cannot take down verification of all the others.
+		static KeySet of(List<SigningKey> stored, SigningKeyCipher cipher) {
+			KeyFactory factory;
+			try {
+				factory = KeyFactory.getInstance("EC");
+			} catch (GeneralSecurityException e) {
+				throw new IllegalStateException("Could not load signing keys", e);
+			}
+			Map<String, PublicKey> verifiers = new HashMap<>();
+			List<Map<String, Object>> jwks = new ArrayList<>(stored.size());
+			ActiveKey active = null;
+			for (SigningKey key : stored) {
+				if (!ALGORITHM.getValue().equals(key.getAlgorithm())) {
+					continue;
+				}
+				ECPublicKey publicKey;
+				try {
+					publicKey = (ECPublicKey) factory.generatePublic(new X509EncodedKeySpec(key.getPublicKey()));
+				} catch (GeneralSecurityException | RuntimeException e) {
+					log.warn("Skipping signing key {}: unreadable public key ({})", key.getKid(), e.toString());
+					continue;
+				}
+				verifiers.put(key.getKid(), publicKey);
+				jwks.add(jwk(key.getKid(), publicKey));
+				if (active == null) {
+					try {
+						byte[] privateKey = cipher.open(key.getKid(), key.getPrivateKey());
+						active = new ActiveKey(key.getKid(), factory.generatePrivate(new PKCS8EncodedKeySpec(privateKey)));
+					} catch (GeneralSecurityException | RuntimeException e) {
+						// Still verifies; the next newest key signs instead
+						log.warn("Signing key {} cannot sign: unreadable private key ({})", key.getKid(), e.toString());
+					}
+				}
+			}
+			return new KeySet(active, Collections.unmodifiableMap(verifiers), jwksOf(jwks));
+		}
+
+		private static Map<String, Object> jwk(String kid, ECPublicKey publicKey) {
+			Map<String, Object> jwk = new LinkedHashMap<>();
+			jwk.put("kty", "EC");
+			jwk.put("crv", "P-256");
+			jwk.put("kid", kid);
+			jwk.put("use", "sig");
+			jwk.put("alg", ALGORITHM.getValue());
+			jwk.put("x", TokenDigests.toBase64(coordinate(publicKey.getW().getAffineX())));
+			jwk.put("y", TokenDigests.toBase64(coordinate(publicKey.getW().getAffineY())));
+			return Collections.unmodifiableMap(jwk);
+		}
+
+		private static Map<String, Object> jwksOf(List<Map<String, Object>> keys) {
+			return Collections.singletonMap("keys", Collections.unmodifiableList(keys));
+		}
+
+		// Unsigned, big-endian, left-padded to the curve size (RFC 7518 section 6.2.1.2)
+		private static byte[] coordinate(BigInteger value) {
+			byte[] bytes = value.toByteArray();
+			byte[] fixed = new byte[COORDINATE_BYTES];
+			int copy = Math.min(bytes.length, COORDINATE_BYTES);
+			System.arraycopy(bytes, bytes.length - copy, fixed, COORDINATE_BYTES - copy, copy);
+			return fixed;
+		}
+	}
+}
@@ -0,0 +1,105 @@
+package com.Jwt.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Layman terms:
+ * Remembers usernames that were recently registered or found taken, so repeated sign-ups
+ * for them are refused right away: no password hashing, no database insert.
+ *
+ * Only "taken" answers are kept, for at most app.users.taken-cache.ttl-ms, and at most
+ * app.users.taken-cache.max-size of them (0 turns the cache off). The unique constraint in the
+ * database stays the real check; this only saves work. A username freed by deleting its user on
+ * another instance is accepted here again once its entry expires.
+ */
+@Component
+public class TakenUsernameCache {
+
+	@Value("${app.users.taken-cache.max-size:10000}")
+	private int maxSize = 10000;
+
+	@Value("${app.users.taken-cache.ttl-ms:300000}")
+	private long ttlMs = 300000L;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	// Insertion order, so the oldest entry is dropped first when full
+	private final LinkedHashMap<String, Long> expiresAtMs = new LinkedHashMap<>(256);
+
+	public boolean isTaken(String username) {
+		lock.lock();
+		try {
+			Long expiresAt = expiresAtMs.get(username);
+			if (expiresAt == null) {
+				return false;
+			}
+			if (expiresAt <= System.currentTimeMillis()) {
+				expiresAtMs.remove(username);
+				return false;
+			}
+			return true;
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void markTaken(String username) {
+		if (maxSize <= 0 || username == null) {
+			return;
+		}
+		lock.lock();
+		try {
+			expiresAtMs.remove(username);
+			expiresAtMs.put(username, System.currentTimeMillis() + ttlMs);
+			Iterator<Map.Entry<String, Long>> eldest = expiresAtMs.entrySet().iterator();
+			while (expiresAtMs.size() > maxSize && eldest.hasNext()) {
+				eldest.next();
+				eldest.remove();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	/**
+	 * Forget a username whose user was deleted. Inside a transaction this happens only after commit:
+	 * if the delete rolls back, the name is still taken.
+	 */
+	public void release(String username) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			releaseNow(username);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				releaseNow(username);
+			}
+		});
+	}
+
+	private void releaseNow(String username) {
+		lock.lock();
+		try {
+			expiresAtMs.remove(username);
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public int size() {
+		lock.lock();
+		try {
+			return expiresAtMs.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+}
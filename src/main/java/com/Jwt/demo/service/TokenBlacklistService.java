@@ -1,19 +1,158 @@
 package com.Jwt.demo.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
-import java.util.HashSet;
-import java.util.Set;
+import javax.annotation.PostConstruct;
+import java.util.Base64;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Revoked (logged out) tokens.
+ * Keyed by a SHA-256 digest of the token, each entry remembers when the token itself expires.
+ * Once that time has passed the token is rejected by signature checks anyway, so the entry is
+ * purged and memory stays bounded by the number of live sessions.
+ *
+ * Lookups first ask a Bloom filter; almost every token was never revoked, and for those the
+ * filter answers "no" without touching the map. Reads never lock. Writes (logouts) and filter
+ * rebuilds are rare and serialized, so a rebuild can never drop a revocation.
+ *
+ * With more than one instance, revocations are published to a RevocationBackend and other
+ * instances pull them in the background (app.revocation.sync-interval-ms).
+ */
 @Service
 public class TokenBlacklistService {
-    private final Set<String> blacklist = new HashSet<>();
+
+    @Autowired
+    private JwtUtil jwtUtil;
+
+    @Autowired
+    private RevocationBackend revocationBackend;
+
+    @Value("${app.revocation.bloom.expected-insertions:100000}")
+    private long expectedInsertions = 100000;
+
+    @Value("${app.revocation.bloom.false-positive-rate:0.01}")
+    private double falsePositiveRate = 0.01;
+
+    private final Map<String, Long> revoked = new ConcurrentHashMap<>();
+    // Not synchronized: a logout on a virtual thread must not pin its carrier while the filter is rebuilt
+    private final ReentrantLock writeLock = new ReentrantLock();
+    private volatile RevocationBloomFilter filter;
+
+    private final AtomicLong revokedCount = new AtomicLong();
+    private final AtomicLong evictedCount = new AtomicLong();
+    private final AtomicLong filterRejects = new AtomicLong();
+    private final AtomicLong filterFalsePositives = new AtomicLong();
+
+    @PostConstruct
+    void init() {
+        filter = new RevocationBloomFilter(expectedInsertions, falsePositiveRate);
+    }
 
     public void blacklistToken(String token) {
-        blacklist.add(token);
+        ParsedToken parsed = jwtUtil.parse(token);
+        if (!parsed.isValid()) {
+            // Expired, forged or garbage tokens are already rejected; nothing to remember
+            return;
+        }
+        byte[] digest = TokenDigests.sha256(token);
+        String tokenId = TokenDigests.toBase64(digest);
+        long expiresAtMs = parsed.getExpiration().getTime();
+        addLocal(tokenId, digest, expiresAtMs);
+        revocationBackend.publish(tokenId, expiresAtMs);
+    }
+
+    private void addLocal(String tokenId, byte[] digest, long expiresAtMs) {
+        writeLock.lock();
+        try {
+            if (revoked.put(tokenId, expiresAtMs) == null) {
+                revokedCount.incrementAndGet();
+            }
+            if (revoked.size() > filter.getCapacity()) {
+                rebuildFilter();
+            } else {
+                filter.put(digest);
+            }
+        } finally {
+            writeLock.unlock();
+        }
     }
 
     public boolean isTokenBlacklisted(String token) {
-        return blacklist.contains(token);
+        byte[] digest = TokenDigests.sha256(token);
+        if (!filter.mightContain(digest)) {
+            filterRejects.incrementAndGet();
+            return false;
+        }
+        boolean found = revoked.containsKey(TokenDigests.toBase64(digest));
+        if (!found) {
+            filterFalsePositives.incrementAndGet();
+        }
+        return found;
+    }
+
+    /**
+     * Pull revocations made on other instances.
+     */
+    @Scheduled(fixedDelayString = "${app.revocation.sync-interval-ms:2000}",
+            initialDelayString = "${app.revocation.sync-interval-ms:2000}")
+    public void syncFromBackend() {
+        long now = System.currentTimeMillis();
+        for (Map.Entry<String, Long> entry : revocationBackend.pollNew().entrySet()) {
+            if (entry.getValue() > now && !revoked.containsKey(entry.getKey())) {
+                addLocal(entry.getKey(), Base64.getUrlDecoder().decode(entry.getKey()), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Drop entries whose token has expired, then rebuild the filter so their bits age out too.
+     */
+    @Scheduled(fixedDelayString = "${app.revocation.purge-interval-ms:60000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        int removed = 0;
+        Iterator<Map.Entry<String, Long>> it = revoked.entrySet().iterator();
+        while (it.hasNext()) {
+            if (it.next().getValue() <= now) {
+                it.remove();
+                removed++;
+            }
+        }
+        revocationBackend.purgeExpired(now);
+        if (removed > 0) {
+            evictedCount.addAndGet(removed);
+            writeLock.lock();
+            try {
+                rebuildFilter();
+            } finally {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    // Caller holds writeLock. Grows the filter when live entries outnumber its capacity.
+    private void rebuildFilter() {
+        long capacity = Math.max(expectedInsertions, revoked.size() * 2L);
+        RevocationBloomFilter rebuilt = new RevocationBloomFilter(capacity, falsePositiveRate);
+        for (String key : revoked.keySet()) {
+            rebuilt.put(Base64.getUrlDecoder().decode(key));
+        }
+        filter = rebuilt;
     }
+
+    // Metrics
+    public int size() { return revoked.size(); }
+    public long getRevokedCount() { return revokedCount.get(); }
+    public long getEvictedCount() { return evictedCount.get(); }
+    public long getFilterRejects() { return filterRejects.get(); }
+    public long getFilterFalsePositives() { return filterFalsePositives.get(); }
+    public long getFilterBits() { return filter.getBitCount(); }
 }
@@ -0,0 +1,37 @@
+package com.Jwt.demo.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+
+/**
+ * Compact, fixed-size keys for raw token strings.
+ * We never keep the full JWT around as a map key; a SHA-256 digest is enough to identify it.
+ */
+public final class TokenDigests {
+
+	private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 not available", e);
+		}
+	});
+
+	private TokenDigests() {}
+
+	public static byte[] sha256(String token) {
+		MessageDigest digest = SHA256.get();
+		digest.reset();
+		return digest.digest(token.getBytes(StandardCharsets.UTF_8));
+	}
+
+	public static String sha256Base64(String token) {
+		return toBase64(sha256(token));
+	}
+
+	public static String toBase64(byte[] digest) {
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+	}
+}
@@ -0,0 +1,113 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Layman terms:
+ * Every user has a "token version" number. Each token remembers the number it was issued with.
+ * Raising the number makes all older tokens of that user invalid in one step - no list of
+ * tokens to revoke.
+ *
+ * The current numbers are kept in memory, so checking a token costs one map read.
+ * A user is loaded from the database the first time they are seen, and again once their entry is
+ * older than app.jwt.token-version.refresh-ms, so changes made on other instances are picked up.
+ * Entries expire one by one (each on its own user's next request), never all at once.
+ */
+@Service
+public class TokenVersionService {
+
+	// Version of users that no longer exist; never matches a token
+	static final int DELETED = -1;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Value("${app.jwt.token-version.refresh-ms:30000}")
+	private long refreshMs = 30000L;
+
+	private final Map<Long, Entry> versions = new ConcurrentHashMap<>();
+
+	public int currentVersion(Long userId) {
+		long now = System.currentTimeMillis();
+		Entry cached = versions.get(userId);
+		if (cached != null && cached.expiresAtMs > now) {
+			return cached.version;
+		}
+		// Queried outside the map: computeIfAbsent would hold a bin lock (a monitor) during the round trip,
+		// blocking other users in that bin and pinning virtual threads
+		int loaded = userRepository.findTokenVersionById(userId).orElse(DELETED);
+		Entry fresh = new Entry(loaded, now + refreshMs);
+		boolean stored = cached == null ? versions.putIfAbsent(userId, fresh) == null : versions.replace(userId, cached, fresh);
+		if (stored) {
+			return loaded;
+		}
+		// A version was published while we queried; it is at least as new as what we read
+		Entry published = versions.get(userId);
+		return published != null ? published.version : loaded;
+	}
+
+	public boolean isCurrent(Long userId, int tokenVersion) {
+		return userId != null && currentVersion(userId) == tokenVersion;
+	}
+
+	/**
+	 * Record a version that was just written for this user. Inside a transaction it only takes
+	 * effect after commit: a rolled back write must not reject the user's valid tokens.
+	 */
+	public void update(Long userId, int tokenVersion) {
+		publishAfterCommit(userId, tokenVersion);
+	}
+
+	public void markDeleted(Long userId) {
+		publishAfterCommit(userId, DELETED);
+	}
+
+	private void publishAfterCommit(Long userId, int tokenVersion) {
+		if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+			publish(userId, tokenVersion);
+			return;
+		}
+		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+			@Override
+			public void afterCommit() {
+				publish(userId, tokenVersion);
+			}
+		});
+	}
+
+	private void publish(Long userId, int tokenVersion) {
+		versions.put(userId, new Entry(tokenVersion, System.currentTimeMillis() + refreshMs));
+	}
+
+	/**
+	 * Drop expired entries of users who have not been seen since, so memory follows active users.
+	 */
+	@Scheduled(fixedDelayString = "${app.jwt.token-version.refresh-ms:30000}")
+	public void refresh() {
+		long now = System.currentTimeMillis();
+		versions.values().removeIf(entry -> entry.expiresAtMs <= now);
+	}
+
+	void clear() {
+		versions.clear();
+	}
+
+	private static final class Entry {
+		private final int version;
+		private final long expiresAtMs;
+
+		private Entry(int version, long expiresAtMs) {
+			this.version = version;
+			this.expiresAtMs = expiresAtMs;
+		}
+	}
+}
@@ -0,0 +1,14 @@
+package com.Jwt.demo.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Collection;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Unknown project id")
+public class UnknownProjectsException extends IllegalArgumentException {
+
+	public UnknownProjectsException(Collection<Long> projectIds) {
+		super("Unknown project ids: " + projectIds);
+	}
+}
@@ -0,0 +1,14 @@
+package com.Jwt.demo.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+import java.util.Collection;
+
+@ResponseStatus(value = HttpStatus.BAD_REQUEST, reason = "Unknown user id")
+public class UnknownUsersException extends IllegalArgumentException {
+
+	public UnknownUsersException(Collection<Long> userIds) {
+		super("Unknown user ids: " + userIds);
+	}
+}
@@ -0,0 +1,219 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.User;
+import com.Jwt.demo.repository.UserRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Layman terms:
+ * Keeps recently used users in memory so the same row is not fetched from PostgreSQL
+ * again and again. Users can be found by id or by username.
+ *
+ * Size is bounded (least recently used users are dropped first) and every entry expires after
+ * app.users.cache.ttl-ms, so changes made on other instances show up eventually. Writes on this
+ * instance must call evict(...) - UserService does that for register, update and delete.
+ *
+ * The cache keeps its own detached copy of each user and hands every caller a fresh copy, so no
+ * User instance is shared between threads and changing a returned user never changes the cache.
+ */
+@Component
+public class UserCache {
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Value("${app.users.cache.max-size:10000}")
+	private int maxSize = 10000;
+
+	@Value("${app.users.cache.ttl-ms:60000}")
+	private long ttlMs = 60000L;
+
+	private final ReentrantLock lock = new ReentrantLock();
+	private final LinkedHashMap<Long, Entry> byId = new LinkedHashMap<>(256, 0.75f, true);
+	private final Map<String, Long> idByUsername = new HashMap<>();
+
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+	private final AtomicLong evictions = new AtomicLong();
+
+	public Optional<User> findById(Long id) {
+		User cached;
+		lock.lock();
+		try {
+			cached = lookup(id);
+		} finally {
+			lock.unlock();
+		}
+		return cached != null ? hit(cached) : load(userRepository.findById(id));
+	}
+
+	public Optional<User> findByUsername(String username) {
+		User cached;
+		lock.lock();
+		try {
+			Long id = idByUsername.get(username);
+			cached = id == null ? null : lookup(id);
+		} finally {
+			lock.unlock();
+		}
+		return cached != null ? hit(cached) : load(userRepository.findByUsername(username));
+	}
+
+	/**
+	 * The cached user, without loading it on a miss.
+	 */
+	public Optional<User> getIfPresent(Long id) {
+		User cached;
+		lock.lock();
+		try {
+			cached = lookup(id);
+		} finally {
+			lock.unlock();
+		}
+		return Optional.ofNullable(cached).map(UserCache::copyOf);
+	}
+
+	/**
+	 * Drop a user now and, inside a transaction, once more after commit - otherwise a concurrent
+	 * read could put the old row back before our write becomes visible.
+	 */
+	public void evict(Long id) {
+		evictNow(id);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					evictNow(id);
+				}
+			});
+		}
+	}
+
+	private void evictNow(Long id) {
+		if (id == null) return;
+		lock.lock();
+		try {
+			Entry removed = byId.remove(id);
+			if (removed != null) {
+				idByUsername.remove(removed.user.getUsername(), id);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void evictByUsername(String username) {
+		lock.lock();
+		try {
+			Long id = idByUsername.remove(username);
+			if (id != null) {
+				byId.remove(id);
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	public void clear() {
+		lock.lock();
+		try {
+			byId.clear();
+			idByUsername.clear();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	// Metrics
+	public long getHits() { return hits.get(); }
+	public long getMisses() { return misses.get(); }
+	public long getEvictions() { return evictions.get(); }
+
+	public int size() {
+		lock.lock();
+		try {
+			return byId.size();
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private Optional<User> hit(User user) {
+		hits.incrementAndGet();
+		return Optional.of(copyOf(user));
+	}
+
+	private Optional<User> load(Optional<User> loaded) {
+		misses.incrementAndGet();
+		loaded.ifPresent(this::put);
+		return loaded;
+	}
+
+	// Caller holds the lock. Returns the live cached user, dropping it if expired.
+	private User lookup(Long id) {
+		Entry entry = byId.get(id);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.expiresAtMs <= System.currentTimeMillis()) {
+			byId.remove(id);
+			idByUsername.remove(entry.user.getUsername(), id);
+			evictions.incrementAndGet();
+			return null;
+		}
+		return entry.user;
+	}
+
+	private void put(User loaded) {
+		// The loaded entity may still be managed by the caller's persistence context; keep a copy
+		User user = copyOf(loaded);
+		lock.lock();
+		try {
+			Entry previous = byId.put(user.getId(), new Entry(user, System.currentTimeMillis() + ttlMs));
+			if (previous != null && !previous.user.getUsername().equals(user.getUsername())) {
+				idByUsername.remove(previous.user.getUsername(), user.getId());
+			}
+			idByUsername.put(user.getUsername(), user.getId());
+			Iterator<Map.Entry<Long, Entry>> eldest = byId.entrySet().iterator();
+			while (byId.size() > maxSize && eldest.hasNext()) {
+				Entry removed = eldest.next().getValue();
+				eldest.remove();
+				idByUsername.remove(removed.user.getUsername(), removed.user.getId());
+				evictions.incrementAndGet();
+			}
+		} finally {
+			lock.unlock();
+		}
+	}
+
+	private static User copyOf(User user) {
+		User copy = new User(user.getUsername(), user.getEmail(), user.getPassword());
+		copy.setId(user.getId());
+		copy.setCanManageUsers(user.isCanManageUsers());
+		copy.setTokenVersion(user.getTokenVersion());
+		copy.setVersion(user.getVersion());
+		return copy;
+	}
+
+	private static final class Entry {
+		private final User user;
+		private final long expiresAtMs;
+
+		private Entry(User user, long expiresAtMs) {
+			this.user = user;
+			this.expiresAtMs = expiresAtMs;
+		}
+	}
+}
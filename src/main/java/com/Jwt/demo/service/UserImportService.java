@@ -0,0 +1,243 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.User;
+import com.Jwt.demo.payload.BulkImportResult;
+import com.Jwt.demo.repository.UserRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.validation.ConstraintViolation;
+import javax.validation.Validator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Layman terms:
+ * Creates many users at once from a JSON-lines upload (one user object per line,
+ * same fields as /api/auth/register).
+ *
+ * Work is done in chunks of app.users.import.chunk-size lines:
+ * - uniqueness is checked for the whole chunk with one query for usernames and one for emails,
+ * - passwords are hashed in parallel (a small fixed pool feeds the shared hashing pool),
+ * - rows are written with one JDBC batch insert.
+ * A bad line is reported with its line number and skipped; it never stops the rest of the import.
+ */
+@Service
+public class UserImportService {
+
+	private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+	private static final String INSERT_SQL =
+			"insert into users (username, email, password, can_manage_users, token_version, version) values (?, ?, ?, ?, 0, 0)";
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@Autowired
+	private Validator validator;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Value("${app.users.import.chunk-size:1000}")
+	private int chunkSize = 1000;
+
+	@Value("${app.users.import.hash-threads:0}")
+	private int hashThreads = 0;
+
+	private ExecutorService hashPool;
+
+	@PostConstruct
+	void init() {
+		int threads = hashThreads > 0 ? hashThreads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+		hashPool = Executors.newFixedThreadPool(threads);
+	}
+
+	@PreDestroy
+	void shutdown() {
+		hashPool.shutdown();
+	}
+
+	public BulkImportResult importUsers(Reader jsonLines) throws IOException {
+		BulkImportResult result = new BulkImportResult();
+		// Usernames/emails accepted earlier in this upload, to catch duplicates inside the file
+		Set<String> seenUsernames = new HashSet<>();
+		Set<String> seenEmails = new HashSet<>();
+		List<Row> chunk = new ArrayList<>(chunkSize);
+
+		BufferedReader reader = new BufferedReader(jsonLines);
+		String line;
+		int lineNumber = 0;
+		while ((line = reader.readLine()) != null) {
+			lineNumber++;
+			if (line.trim().isEmpty()) {
+				continue;
+			}
+			result.addReceived(1);
+			Row row = parse(line, lineNumber, result);
+			if (row == null) {
+				continue;
+			}
+			if (!seenUsernames.add(row.user.getUsername())) {
+				result.addError(lineNumber, row.user.getUsername(), "Duplicate username in upload");
+				continue;
+			}
+			if (row.user.getEmail() != null && !seenEmails.add(row.user.getEmail())) {
+				result.addError(lineNumber, row.user.getUsername(), "Duplicate email in upload");
+				continue;
+			}
+			chunk.add(row);
+			if (chunk.size() >= chunkSize) {
+				importChunk(chunk, result);
+				chunk.clear();
+			}
+		}
+		if (!chunk.isEmpty()) {
+			importChunk(chunk, result);
+		}
+		result.getErrors().sort(Comparator.comparingInt(BulkImportResult.RowError::getLine));
+		return result;
+	}
+
+	private Row parse(String line, int lineNumber, BulkImportResult result) {
+		User user;
+		try {
+			user = objectMapper.readValue(line, User.class);
+		} catch (JsonProcessingException e) {
+			result.addError(lineNumber, null, "Invalid JSON: " + e.getOriginalMessage());
+			return null;
+		}
+		Set<ConstraintViolation<User>> violations = validator.validate(user);
+		if (!violations.isEmpty()) {
+			ConstraintViolation<User> first = violations.iterator().next();
+			result.addError(lineNumber, user.getUsername(), first.getPropertyPath() + " " + first.getMessage());
+			return null;
+		}
+		return new Row(lineNumber, user);
+	}
+
+	private void importChunk(List<Row> chunk, BulkImportResult result) {
+		// 1. One query each for usernames and emails that already exist
+		Set<String> usernames = new HashSet<>();
+		Set<String> emails = new HashSet<>();
+		for (Row row : chunk) {
+			usernames.add(row.user.getUsername());
+			if (row.user.getEmail() != null) {
+				emails.add(row.user.getEmail());
+			}
+		}
+		Set<String> takenUsernames = new HashSet<>(userRepository.findExistingUsernames(usernames));
+		Set<String> takenEmails = emails.isEmpty()
+				? new HashSet<>() : new HashSet<>(userRepository.findExistingEmails(emails));
+
+		List<Row> accepted = new ArrayList<>(chunk.size());
+		for (Row row : chunk) {
+			if (takenUsernames.contains(row.user.getUsername())) {
+				result.addError(row.line, row.user.getUsername(), "Username already taken");
+			} else if (row.user.getEmail() != null && takenEmails.contains(row.user.getEmail())) {
+				result.addError(row.line, row.user.getUsername(), "Email already in use");
+			} else {
+				accepted.add(row);
+			}
+		}
+		if (accepted.isEmpty()) {
+			return;
+		}
+
+		// 2. Hash passwords in parallel on the bounded pool
+		List<CompletableFuture<String>> hashes = new ArrayList<>(accepted.size());
+		for (Row row : accepted) {
+			String rawPassword = row.user.getPassword();
+			hashes.add(CompletableFuture.supplyAsync(() -> passwordEncoder.encode(rawPassword), hashPool));
+		}
+		List<Row> hashed = new ArrayList<>(accepted.size());
+		List<Object[]> params = new ArrayList<>(accepted.size());
+		for (int i = 0; i < accepted.size(); i++) {
+			Row row = accepted.get(i);
+			String hash;
+			try {
+				hash = hashes.get(i).join();
+			} catch (CompletionException e) {
+				// e.g. the shared hashing pool is saturated by logins; report and move on
+				result.addError(row.line, row.user.getUsername(), "Password hashing failed: " + e.getCause().getMessage());
+				continue;
+			}
+			hashed.add(row);
+			params.add(new Object[]{row.user.getUsername(), row.user.getEmail(), hash, row.user.isCanManageUsers()});
+		}
+		if (hashed.isEmpty()) {
+			return;
+		}
+
+		// 3. One batch insert; if someone registered a clashing user meanwhile, retry row by row
+		try {
+			transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT_SQL, params));
+			result.addImported(hashed.size());
+		} catch (DataAccessException batchFailed) {
+			for (int i = 0; i < hashed.size(); i++) {
+				try {
+					jdbcTemplate.update(INSERT_SQL, params.get(i));
+					result.addImported(1);
+				} catch (DataAccessException e) {
+					User user = hashed.get(i).user;
+					result.addError(hashed.get(i).line, user.getUsername(), insertFailure(e, user));
+				}
+			}
+		}
+	}
+
+	// The caller sees which field clashed, never the database's own message (schema, SQL, values)
+	private String insertFailure(DataAccessException e, User user) {
+		if (e instanceof DataIntegrityViolationException) {
+			if (userRepository.existsByUsername(user.getUsername())) {
+				return "Username already taken";
+			}
+			if (user.getEmail() != null && userRepository.existsByEmail(user.getEmail())) {
+				return "Email already in use";
+			}
+		}
+		log.warn("Import of user {} failed: {}", user.getUsername(), e.getMostSpecificCause().getMessage());
+		return "Could not insert user";
+	}
+
+	private static final class Row {
+		private final int line;
+		private final User user;
+
+		private Row(int line, User user) {
+			this.line = line;
+			this.user = user;
+		}
+	}
+}
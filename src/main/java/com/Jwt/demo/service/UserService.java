@@ -1,55 +1,170 @@
 package com.Jwt.demo.service;
 
 import com.Jwt.demo.Model.User;
+import com.Jwt.demo.payload.UserPage;
+import com.Jwt.demo.payload.UserResponse;
+import com.Jwt.demo.repository.ProjectRepository;
 import com.Jwt.demo.repository.UserRepository;
+import org.hibernate.exception.ConstraintViolationException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class UserService {
 
+	public static final int DEFAULT_PAGE_SIZE = 50;
+	public static final int MAX_PAGE_SIZE = 500;
+
 	@Autowired
 	private UserRepository userRepository;
 
 	@Autowired
 	private PasswordEncoder passwordEncoder;
 
-	public List<User> findAll() {
-		return userRepository.findAll();
+	@Autowired
+	private TokenVersionService tokenVersionService;
+
+	@Autowired
+	private UserCache userCache;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private TakenUsernameCache takenUsernames;
+
+	/**
+	 * One page of users ordered by id, starting after the given id (null = from the start).
+	 */
+	public UserPage findPage(Long afterId, int size) {
+		int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+		List<UserResponse> users = userRepository.findResponsesAfter(afterId == null ? 0L : afterId,
+				PageRequest.of(0, pageSize));
+		Long nextCursor = users.size() == pageSize ? users.get(users.size() - 1).getId() : null;
+		return new UserPage(users, nextCursor);
+	}
+
+	/**
+	 * Hand every user to the sink one by one, in id order, without holding the table in memory.
+	 * Rows are read as plain DTOs, so nothing accumulates in the persistence context.
+	 */
+	@Transactional(readOnly = true)
+	public void forEachUser(Consumer<UserResponse> sink) {
+		try (Stream<UserResponse> users = userRepository.streamResponsesOrderById()) {
+			users.forEach(sink);
+		}
 	}
 
 	public Optional<User> findById(Long id) {
-		return userRepository.findById(id);
+		return userCache.findById(id);
 	}
 
-	@Transactional
+	/**
+	 * One user as the API returns it, read from just the columns the response needs.
+	 */
+	public Optional<UserResponse> findResponse(Long id) {
+		return userRepository.findResponseById(id);
+	}
+
+	/**
+	 * The user's current version (see User.getVersion) without loading the user:
+	 * taken from the cache when it holds the user, otherwise a one-column query.
+	 */
+	public Optional<Long> findVersion(Long id) {
+		Optional<User> cached = userCache.getIfPresent(id);
+		return cached.isPresent() ? cached.map(User::getVersion) : userRepository.findVersionById(id);
+	}
+
+	/**
+	 * Create a user with a single INSERT; the unique constraints on username and email decide
+	 * whether it is a duplicate, so two concurrent sign-ups for one name cannot both succeed.
+	 * Deliberately not @Transactional: the password is hashed without holding a connection, and
+	 * a failed insert leaves no aborted transaction behind for the follow-up checks.
+	 */
 	public User registerUser(String username, String email, String rawPassword, Boolean canManageUsers) {
-		if (userRepository.existsByUsername(username)) {
-			throw new IllegalArgumentException("Username already taken");
-		}
-		if (userRepository.existsByEmail(email)) {
-			throw new IllegalArgumentException("Email already in use");
+		if (takenUsernames.isTaken(username)) {
+			throw new UsernameTakenException(username);
 		}
 		User user = new User(username, email, passwordEncoder.encode(rawPassword));
 		if (canManageUsers != null) {
 			user.setCanManageUsers(canManageUsers);
 		}
-		return userRepository.save(user);
+		User saved;
+		try {
+			saved = userRepository.saveAndFlush(user);
+		} catch (DataIntegrityViolationException e) {
+			throw duplicateUser(e, username, email);
+		}
+		takenUsernames.markTaken(saved.getUsername());
+		userCache.evictByUsername(saved.getUsername());
+		return saved;
+	}
+
+	// Name the clashing column from the violated constraint; databases whose constraints predate the
+	// named ones (generated names) are answered with one extra lookup, on this failure path only
+	private RuntimeException duplicateUser(DataIntegrityViolationException e, String username, String email) {
+		String constraint = e.getCause() instanceof ConstraintViolationException
+				? ((ConstraintViolationException) e.getCause()).getConstraintName() : null;
+		constraint = constraint == null ? "" : constraint.toLowerCase();
+		boolean usernameTaken = constraint.contains(User.UNIQUE_USERNAME);
+		boolean emailInUse = constraint.contains(User.UNIQUE_EMAIL);
+		if (!usernameTaken && !emailInUse) {
+			usernameTaken = userRepository.existsByUsername(username);
+			emailInUse = !usernameTaken && email != null && userRepository.existsByEmail(email);
+		}
+		if (usernameTaken) {
+			takenUsernames.markTaken(username);
+			return new UsernameTakenException(username);
+		}
+		return emailInUse ? new EmailInUseException() : e;
 	}
 
 	@Transactional
 	public User updateUserManageFlag(Long id, boolean canManageUsers) {
 		User user = userRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("User not found"));
 		user.setCanManageUsers(canManageUsers);
-		return userRepository.save(user);
+		// Privileges changed: tokens issued under the old ones must stop working
+		return bumpTokenVersion(user);
+	}
+
+	/**
+	 * Log the user out everywhere by invalidating all tokens issued so far.
+	 */
+	@Transactional
+	public User revokeAllSessions(Long id) {
+		User user = userRepository.findById(id).orElseThrow(() -> new IllegalArgumentException("User not found"));
+		refreshTokenService.revokeAllForUser(id);
+		return bumpTokenVersion(user);
 	}
 
+	@Transactional
 	public void deleteById(Long id) {
+		// Straight from the table: loading through the cache could put the row back before the delete
+		userRepository.findUsernameById(id).ifPresent(takenUsernames::release);
+		projectRepository.removeUserFromAllProjects(id);
 		userRepository.deleteById(id);
+		refreshTokenService.revokeAllForUser(id);
+		userCache.evict(id);
+		tokenVersionService.markDeleted(id);
+	}
+
+	private User bumpTokenVersion(User user) {
+		user.setTokenVersion(user.getTokenVersion() + 1);
+		User saved = userRepository.save(user);
+		userCache.evict(saved.getId());
+		tokenVersionService.update(saved.getId(), saved.getTokenVersion());
+		return saved;
 	}
 }
@@ -0,0 +1,12 @@
+package com.Jwt.demo.service;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(value = HttpStatus.CONFLICT, reason = "Username already taken")
+public class UsernameTakenException extends IllegalArgumentException {
+
+	public UsernameTakenException(String username) {
+		super("Username already taken: " + username);
+	}
+}
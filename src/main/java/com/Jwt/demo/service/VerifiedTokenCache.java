@@ -0,0 +1,94 @@
+package com.Jwt.demo.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Date;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Layman terms:
+ * Remembers tokens we already checked, so the next request with the same token
+ * does not have to verify the signature or look the user up in the database again.
+ *
+ * An entry lives until the token's own expiry, capped by app.jwt.verified-cache.max-ttl-ms
+ * so that changes to the user row are picked up eventually. The cache holds at most
+ * app.jwt.verified-cache.max-size entries; expired ones are dropped first when it is full.
+ */
+@Component
+public class VerifiedTokenCache {
+
+	private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+	@Value("${app.jwt.verified-cache.max-size:10000}")
+	private int maxSize = 10000;
+
+	@Value("${app.jwt.verified-cache.max-ttl-ms:300000}")
+	private long maxTtlMs = 300000L;
+
+	/**
+	 * Return the user details cached for this token, or null if unknown or expired.
+	 */
+	public AuthenticatedUser get(String token) {
+		String key = TokenDigests.sha256Base64(token);
+		Entry entry = entries.get(key);
+		if (entry == null) {
+			return null;
+		}
+		if (entry.expiresAtMs <= System.currentTimeMillis()) {
+			entries.remove(key, entry);
+			return null;
+		}
+		return entry.userDetails;
+	}
+
+	/**
+	 * Remember a token that passed full verification.
+	 */
+	public void put(String token, AuthenticatedUser userDetails, Date tokenExpiration) {
+		long now = System.currentTimeMillis();
+		long expiresAtMs = Math.min(tokenExpiration.getTime(), now + maxTtlMs);
+		if (expiresAtMs <= now) {
+			return;
+		}
+		if (entries.size() >= maxSize) {
+			evict(now);
+		}
+		entries.put(TokenDigests.sha256Base64(token), new Entry(userDetails, expiresAtMs));
+	}
+
+	public void invalidate(String token) {
+		entries.remove(TokenDigests.sha256Base64(token));
+	}
+
+	public void clear() {
+		entries.clear();
+	}
+
+	public int size() {
+		return entries.size();
+	}
+
+	// Drop expired entries; if that is not enough, drop arbitrary ones down to 90% of capacity
+	private void evict(long now) {
+		entries.values().removeIf(entry -> entry.expiresAtMs <= now);
+		int target = (int) (maxSize * 0.9);
+		Iterator<String> it = entries.keySet().iterator();
+		while (entries.size() > target && it.hasNext()) {
+			it.next();
+			it.remove();
+		}
+	}
+
+	private static final class Entry {
+		private final AuthenticatedUser userDetails;
+		private final long expiresAtMs;
+
+		private Entry(AuthenticatedUser userDetails, long expiresAtMs) {
+			this.userDetails = userDetails;
+			this.expiresAtMs = expiresAtMs;
+		}
+	}
+}
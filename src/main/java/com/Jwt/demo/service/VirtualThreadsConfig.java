@@ -0,0 +1,79 @@
+package com.Jwt.demo.service;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Layman terms:
+ * With app.threads.virtual=true (needs Java 21+) every HTTP request runs on its own virtual thread
+ * instead of one of Tomcat's 200 pool threads. A request waiting for the database or for a BCrypt
+ * thread then costs almost nothing, so bursts queue in the connection pool instead of in Tomcat.
+ *
+ * What keeps this safe:
+ * - BCrypt still runs on the small fixed pool of BoundedPasswordEncoder; only the waiting is virtual.
+ * - Database access is limited by the Hikari pool (spring.datasource.hikari.maximum-pool-size);
+ *   extra requests wait up to connection-timeout for a connection.
+ * - No code on the request path blocks while holding a monitor (synchronized, or ConcurrentHashMap's
+ *   computeIfAbsent), which would pin the carrier thread; the PostgreSQL driver is 42.6+, which uses
+ *   locks instead. RequestPathPinningTests checks the JWT filter path; at runtime use -Djdk.tracePinnedThreads=short.
+ *
+ * The app is still compiled for Java 8, so the JDK 21 API is looked up by reflection.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.threads.virtual", havingValue = "true")
+public class VirtualThreadsConfig implements WebMvcConfigurer {
+
+	private static final Logger log = LoggerFactory.getLogger(VirtualThreadsConfig.class);
+
+	@Bean(destroyMethod = "shutdown")
+	public ExecutorService virtualThreadExecutor() {
+		ExecutorService executor = newVirtualThreadPerTaskExecutor("http-vt-");
+		log.info("Serving requests on virtual threads");
+		return executor;
+	}
+
+	@Bean
+	public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandler() {
+		return protocolHandler -> protocolHandler.setExecutor(virtualThreadExecutor());
+	}
+
+	// Async MVC work (e.g. the /api/users/export stream) uses virtual threads too
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(new TaskExecutorAdapter(virtualThreadExecutor()));
+	}
+
+	// Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name(prefix, 0).factory())
+	static ExecutorService newVirtualThreadPerTaskExecutor(String namePrefix) {
+		try {
+			Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+			Class<?> builderType = Class.forName("java.lang.Thread$Builder");
+			builder = builderType.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+			ThreadFactory factory = (ThreadFactory) builderType.getMethod("factory").invoke(builder);
+			Method perTask = Executors.class.getMethod("newThreadPerTaskExecutor", ThreadFactory.class);
+			return (ExecutorService) perTask.invoke(null, factory);
+		} catch (NoSuchMethodException | ClassNotFoundException e) {
+			throw new IllegalStateException("app.threads.virtual=true needs Java 21 or newer, running on "
+					+ System.getProperty("java.version"), e);
+		} catch (InvocationTargetException e) {
+			// e.g. Java 19/20 without --enable-preview
+			throw new IllegalStateException("Virtual threads are not available: " + e.getCause(), e.getCause());
+		} catch (IllegalAccessException e) {
+			throw new IllegalStateException("Virtual threads are not available", e);
+		}
+	}
+}
@@ -0,0 +1,49 @@
+package com.Jwt.demo.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:authcontroller;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class AuthControllerTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Test
+	void registerAcceptsJsonBodiesAndFormParameters() throws Exception {
+		mvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"jsonuser\",\"email\":\"jsonuser@example.com\",\"password\":\"secret12\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.username").value("jsonuser"))
+				.andExpect(jsonPath("$.password").doesNotExist());
+
+		mvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_FORM_URLENCODED)
+						.param("username", "formuser").param("email", "formuser@example.com").param("password", "secret12"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.username").value("formuser"));
+
+		mvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"jsonuser\",\"email\":\"other@example.com\",\"password\":\"secret12\"}"))
+				.andExpect(status().isConflict());
+	}
+
+	@Test
+	void invalidRegistrationsAreClientErrors() throws Exception {
+		mvc.perform(post("/api/auth/register").contentType(MediaType.APPLICATION_JSON)
+						.content("{\"username\":\"\",\"password\":\"short\"}"))
+				.andExpect(status().isBadRequest());
+		mvc.perform(post("/api/auth/register").param("username", " ").param("password", "secret12"))
+				.andExpect(status().isBadRequest());
+		mvc.perform(post("/api/auth/register").param("username", "nomail").param("email", "not-an-email").param("password", "secret12"))
+				.andExpect(status().isBadRequest());
+	}
+}
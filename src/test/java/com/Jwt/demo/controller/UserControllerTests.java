@@ -0,0 +1,81 @@
+package com.Jwt.demo.controller;
+
+import com.Jwt.demo.Model.User;
+import com.Jwt.demo.service.AuthService;
+import com.Jwt.demo.service.UserService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:usercontroller;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class UserControllerTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private UserService userService;
+
+	private static String bearer(String token) {
+		return "Bearer " + token;
+	}
+
+	@Test
+	void revokeSessionsInvalidatesExistingTokens() throws Exception {
+		User grace = userService.registerUser("grace", "grace@example.com", "secret12", null);
+		String first = authService.login("grace", "secret12").getToken();
+		String second = authService.login("grace", "secret12").getToken();
+		String admin = authService.login("admin", "admin123").getToken();
+		mvc.perform(get("/api/me").header("Authorization", bearer(first))).andExpect(status().isOk());
+
+		mvc.perform(post("/api/users/" + grace.getId() + "/revokeSessions").header("Authorization", bearer(admin)))
+				.andExpect(status().is2xxSuccessful());
+
+		mvc.perform(get("/api/me").header("Authorization", bearer(first))).andExpect(status().is4xxClientError());
+		mvc.perform(get("/api/me").header("Authorization", bearer(second))).andExpect(status().is4xxClientError());
+		// Logging in again works and issues tokens under the new version
+		String fresh = authService.login("grace", "secret12").getToken();
+		mvc.perform(get("/api/me").header("Authorization", bearer(fresh))).andExpect(status().isOk());
+	}
+
+	@Test
+	void userReadsAreRevalidatedWithTheVersionETag() throws Exception {
+		User heidi = userService.registerUser("heidi", "heidi@example.com", "secret12", null);
+		String admin = bearer(authService.login("admin", "admin123").getToken());
+		String path = "/api/users/" + heidi.getId();
+
+		String eTag = mvc.perform(get(path).header("Authorization", admin))
+				.andExpect(status().isOk())
+				.andExpect(header().exists(HttpHeaders.ETAG))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+		mvc.perform(get(path).header("Authorization", admin).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+
+		mvc.perform(put(path + "/canManage").header("Authorization", admin).param("canManageUsers", "true"))
+				.andExpect(status().isOk());
+
+		String changed = mvc.perform(get(path).header("Authorization", admin).header(HttpHeaders.IF_NONE_MATCH, eTag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.canManageUsers").value(true))
+				.andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+		assertNotEquals(eTag, changed);
+	}
+}
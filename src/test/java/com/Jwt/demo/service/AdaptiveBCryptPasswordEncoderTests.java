@@ -0,0 +1,35 @@
+package com.Jwt.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AdaptiveBCryptPasswordEncoderTests {
+
+	@Test
+	void upgradesOnlyHashesOfALowerCost() {
+		AdaptiveBCryptPasswordEncoder encoder = new AdaptiveBCryptPasswordEncoder(5);
+
+		assertFalse(encoder.upgradeEncoding(encoder.encode("secret12")));
+		assertTrue(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("secret12")));
+		// A stronger hash (e.g. from an instance with a higher cost) is never weakened
+		assertFalse(encoder.upgradeEncoding(new BCryptPasswordEncoder(6).encode("secret12")));
+		assertFalse(encoder.upgradeEncoding(null));
+		assertFalse(encoder.upgradeEncoding("not-a-bcrypt-hash"));
+		// Old hashes keep verifying until they are re-hashed
+		assertTrue(encoder.matches("secret12", new BCryptPasswordEncoder(4).encode("secret12")));
+	}
+
+	@Test
+	void calibrationStaysWithinBounds() {
+		// No time budget at all: never below the minimum
+		assertEquals(4, AdaptiveBCryptPasswordEncoder.calibrated(0, 4, 6).getStrength());
+		// Unlimited budget: never above the maximum
+		assertEquals(6, AdaptiveBCryptPasswordEncoder.calibrated(Long.MAX_VALUE / 4, 4, 6).getStrength());
+		int strength = AdaptiveBCryptPasswordEncoder.calibrated(20, 4, 6).getStrength();
+		assertTrue(strength >= 4 && strength <= 6, "strength " + strength);
+	}
+}
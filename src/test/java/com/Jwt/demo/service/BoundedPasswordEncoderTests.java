@@ -0,0 +1,72 @@
+package com.Jwt.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BoundedPasswordEncoderTests {
+
+	// Encodes by blocking until released, so the pool can be filled on purpose
+	private static final class BlockingEncoder implements PasswordEncoder {
+		final CountDownLatch started = new CountDownLatch(1);
+		final CountDownLatch release = new CountDownLatch(1);
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			started.countDown();
+			try {
+				release.await(5, TimeUnit.SECONDS);
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			return "hash:" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+	}
+
+	@Test
+	void rejectsFastWhenPoolAndQueueAreFull() throws Exception {
+		BlockingEncoder blocking = new BlockingEncoder();
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, 5000);
+		try {
+			CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("a"));
+			assertTrue(blocking.started.await(5, TimeUnit.SECONDS));
+			CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("b"));
+			while (encoder.getQueueDepth() == 0) {
+				Thread.sleep(1);
+			}
+
+			assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("c"));
+			assertEquals(1, encoder.getRejectedCount());
+
+			blocking.release.countDown();
+			assertEquals("hash:a", running.get(5, TimeUnit.SECONDS));
+			assertEquals("hash:b", queued.get(5, TimeUnit.SECONDS));
+		} finally {
+			encoder.shutdown();
+		}
+	}
+
+	@Test
+	void timesOutInsteadOfWaitingForever() {
+		BlockingEncoder blocking = new BlockingEncoder();
+		BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(blocking, 1, 1, 50);
+		try {
+			assertThrows(PasswordHashingBusyException.class, () -> encoder.encode("a"));
+		} finally {
+			blocking.release.countDown();
+			encoder.shutdown();
+		}
+	}
+}
@@ -0,0 +1,57 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.DemoApplication;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two app instances sharing one embedded database: a logout on one must reach the other.
+ */
+class ClusterRevocationTests {
+
+	private ConfigurableApplicationContext nodeA;
+	private ConfigurableApplicationContext nodeB;
+
+	@BeforeEach
+	void startNodes() {
+		nodeA = startNode();
+		nodeB = startNode();
+	}
+
+	@AfterEach
+	void stopNodes() {
+		if (nodeB != null) nodeB.close();
+		if (nodeA != null) nodeA.close();
+	}
+
+	private ConfigurableApplicationContext startNode() {
+		return new SpringApplicationBuilder(DemoApplication.class)
+				.run(
+						"--server.port=0",
+						"--spring.datasource.url=jdbc:h2:mem:cluster;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+						"--spring.jpa.hibernate.ddl-auto=update",
+						"--app.revocation.backend=jdbc",
+						// Sync manually below instead of waiting for the scheduler
+						"--app.revocation.sync-interval-ms=3600000");
+	}
+
+	@Test
+	void logoutOnOneNodeIsSeenByTheOther() {
+		String token = nodeA.getBean(JwtUtil.class).generateToken("admin");
+		TokenBlacklistService blacklistA = nodeA.getBean(TokenBlacklistService.class);
+		TokenBlacklistService blacklistB = nodeB.getBean(TokenBlacklistService.class);
+
+		blacklistA.blacklistToken(token);
+		assertTrue(blacklistA.isTokenBlacklisted(token));
+		assertFalse(blacklistB.isTokenBlacklisted(token));
+
+		blacklistB.syncFromBackend();
+		assertTrue(blacklistB.isTokenBlacklisted(token));
+	}
+}
@@ -0,0 +1,138 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.SigningKey;
+import com.Jwt.demo.repository.SigningKeyRepository;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.security.KeyPairGenerator;
+import java.security.spec.ECGenParameterSpec;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+class JwtUtilTests {
+
+	private JwtUtil newJwtUtil(String secret, long expirationMs) {
+		JwtUtil jwtUtil = new JwtUtil();
+		jwtUtil.setSecret(secret);
+		jwtUtil.setJwtExpirationMs(expirationMs);
+		return jwtUtil;
+	}
+
+	@Test
+	void parseReturnsClaimsOfValidToken() {
+		JwtUtil jwtUtil = newJwtUtil("test-secret", 60000);
+		ParsedToken parsed = jwtUtil.parse(jwtUtil.generateToken("alice"));
+
+		assertTrue(parsed.isValid());
+		assertEquals("alice", parsed.getSubject());
+		assertNotNull(parsed.getIssuedAt());
+		assertNotNull(parsed.getExpiration());
+	}
+
+	@Test
+	void parseReportsRejectionReason() {
+		JwtUtil jwtUtil = newJwtUtil("test-secret", 60000);
+		String token = jwtUtil.generateToken("alice");
+
+		assertEquals(ParsedToken.Status.MALFORMED, jwtUtil.parse("not a token").getStatus());
+		assertEquals(ParsedToken.Status.MALFORMED, jwtUtil.parse(null).getStatus());
+		assertEquals(ParsedToken.Status.BAD_SIGNATURE, newJwtUtil("other-secret", 60000).parse(token).getStatus());
+		assertEquals(ParsedToken.Status.EXPIRED, jwtUtil.parse(newJwtUtil("test-secret", -1000).generateToken("alice")).getStatus());
+	}
+
+	@Test
+	void validateTokenChecksSubject() {
+		JwtUtil jwtUtil = newJwtUtil("test-secret", 60000);
+		String token = jwtUtil.generateToken("alice");
+
+		assertTrue(jwtUtil.validateToken(token, "alice"));
+		assertFalse(jwtUtil.validateToken(token, "bob"));
+	}
+
+	@Test
+	void signsWithEs256AndVerifiesByKeyId() {
+		SigningKeyService keys = SigningKeyFixtures.inMemory();
+		JwtUtil jwtUtil = newJwtUtil("test-secret", 60000);
+		ReflectionTestUtils.setField(jwtUtil, "signingKeys", keys);
+
+		String token = jwtUtil.generateToken("alice");
+		String header = new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))));
+
+		assertTrue(header.contains("\"alg\":\"ES256\""));
+		assertTrue(header.contains("\"kid\":\"" + keys.activeKey().getKid() + "\""));
+		assertTrue(jwtUtil.parse(token).isValid());
+		// Tokens from before the switch (HS256 with the secret, no kid) only verify while explicitly allowed
+		String legacy = newJwtUtil("test-secret", 60000).generateToken("alice");
+		assertEquals(ParsedToken.Status.UNSUPPORTED, jwtUtil.parse(legacy).getStatus());
+		ReflectionTestUtils.setField(jwtUtil, "acceptLegacyHmac", true);
+		assertTrue(jwtUtil.parse(legacy).isValid());
+		ReflectionTestUtils.setField(jwtUtil, "acceptLegacyHmac", false);
+		// A token from another key set, or an HMAC token claiming one of our kids, does not
+		assertEquals(ParsedToken.Status.BAD_SIGNATURE, jwtUtil.parse(signedWithOtherKeys()).getStatus());
+		String hmacWithKid = Jwts.builder().setHeaderParam("kid", keys.activeKey().getKid()).setSubject("alice")
+				.setExpiration(new Date(System.currentTimeMillis() + 60000))
+				.signWith(SignatureAlgorithm.HS256, "test-secret").compact();
+		assertEquals(ParsedToken.Status.BAD_SIGNATURE, jwtUtil.parse(hmacWithKid).getStatus());
+
+		@SuppressWarnings("unchecked")
+		List<Map<String, Object>> jwks = (List<Map<String, Object>>) keys.jwks().get("keys");
+		assertEquals(1, jwks.size());
+		assertEquals(keys.activeKey().getKid(), jwks.get(0).get("kid"));
+		assertEquals(43, ((String) jwks.get(0).get("x")).length());
+	}
+
+	@Test
+	void corruptStoredKeysNeverTurnAnUnknownKidIntoAnError() throws Exception {
+		SigningKeyService keys = SigningKeyFixtures.inMemory();
+		JwtUtil jwtUtil = newJwtUtil("test-secret", 60000);
+		ReflectionTestUtils.setField(jwtUtil, "signingKeys", keys);
+		String issued = jwtUtil.generateToken("alice");
+		String activeKid = keys.activeKey().getKid();
+
+		SigningKeyRepository repository = (SigningKeyRepository) ReflectionTestUtils.getField(keys, "signingKeyRepository");
+		long now = System.currentTimeMillis();
+		repository.save(new SigningKey("corrupt-public", "ES256", new byte[]{0x30, 0x00}, new byte[]{0x30}, now));
+		// Newest row, sealed under another KEK: verifies, but cannot sign
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(new ECGenParameterSpec("secp256r1"));
+		byte[] otherKek = new byte[33];
+		otherKek[0] = 0x01;
+		repository.save(new SigningKey("other-kek", "ES256", generator.generateKeyPair().getPublic().getEncoded(), otherKek, now));
+
+		// A made-up kid forces a reload that reads both rows
+		allowReloadNow(keys);
+		assertEquals(ParsedToken.Status.BAD_SIGNATURE, jwtUtil.parse(signedWithOtherKeys()).getStatus());
+		assertTrue(jwtUtil.parse(issued).isValid());
+		assertEquals(activeKid, keys.activeKey().getKid());
+		assertEquals(2, ((List<?>) keys.jwks().get("keys")).size());
+
+		// The key table cannot be read at all: the keys loaded before stay in use
+		when(repository.findByCreatedAtGreaterThanOrderByCreatedAtDesc(anyLong())).thenThrow(new IllegalStateException("database down"));
+		allowReloadNow(keys);
+		assertEquals(ParsedToken.Status.BAD_SIGNATURE, jwtUtil.parse(signedWithOtherKeys()).getStatus());
+		assertTrue(jwtUtil.parse(issued).isValid());
+	}
+
+	private static void allowReloadNow(SigningKeyService keys) {
+		((AtomicLong) ReflectionTestUtils.getField(keys, "lastReloadMs")).set(0);
+	}
+
+	private String signedWithOtherKeys() {
+		JwtUtil other = newJwtUtil("test-secret", 60000);
+		ReflectionTestUtils.setField(other, "signingKeys", SigningKeyFixtures.inMemory());
+		return other.generateToken("alice");
+	}
+}
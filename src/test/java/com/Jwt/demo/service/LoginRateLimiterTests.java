@@ -0,0 +1,68 @@
+package com.Jwt.demo.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Collections;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LoginRateLimiterTests {
+
+	private LoginRateLimiter limiter;
+
+	@BeforeEach
+	void setUp() {
+		// Defaults: 20 attempts per IP, 5 per username
+		limiter = new LoginRateLimiter();
+		limiter.init();
+	}
+
+	@Test
+	void limitsAttemptsPerUsername() {
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.tryAcquire("10.0.0." + i, "alice"));
+		}
+		assertFalse(limiter.tryAcquire("10.0.0.99", "alice"));
+		assertTrue(limiter.tryAcquire("10.0.0.99", "bob"));
+		assertEquals(1, limiter.getRejectedByUsername());
+	}
+
+	@Test
+	void limitsAttemptsPerIp() {
+		for (int i = 0; i < 20; i++) {
+			assertTrue(limiter.tryAcquire("10.0.0.1", "user" + i));
+		}
+		assertFalse(limiter.tryAcquire("10.0.0.1", "someone-else"));
+		assertTrue(limiter.tryAcquire("10.0.0.2", "someone-else"));
+		assertEquals(1, limiter.getRejectedByIp());
+	}
+
+	@Test
+	void refusalsSayHowLongUntilTheNextAttempt() {
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0, limiter.acquire("10.0.0." + i, "carol"));
+		}
+		// The username bucket refills 0.1 attempts per second: about 10 s for the next one
+		long retryAfter = limiter.acquire("10.0.0.99", "carol");
+		assertTrue(retryAfter >= 9 && retryAfter <= 10, "retry after " + retryAfter);
+
+		for (int i = 0; i < 20; i++) {
+			limiter.acquire("10.0.0.7", "dave" + i);
+		}
+		// The IP bucket refills one attempt per second
+		assertEquals(1, limiter.acquire("10.0.0.7", "erin"));
+	}
+
+	@Test
+	void longUsernamesWithACommonPrefixHaveTheirOwnBuckets() {
+		String prefix = String.join("", Collections.nCopies(80, "a"));
+		for (int i = 0; i < 5; i++) {
+			assertTrue(limiter.tryAcquire("10.0.1." + i, prefix + "-victim"));
+		}
+		assertFalse(limiter.tryAcquire("10.0.1.9", prefix + "-victim"));
+		assertTrue(limiter.tryAcquire("10.0.1.9", prefix + "-other"));
+	}
+}
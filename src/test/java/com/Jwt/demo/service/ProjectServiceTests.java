@@ -0,0 +1,246 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.Project;
+import com.Jwt.demo.Model.User;
+import com.Jwt.demo.payload.AssignmentRequest;
+import com.Jwt.demo.payload.AssignmentResult;
+import com.Jwt.demo.payload.BudgetSummary;
+import com.Jwt.demo.payload.ProjectFilter;
+import com.Jwt.demo.payload.ProjectPage;
+import com.Jwt.demo.payload.ProjectRequest;
+import com.Jwt.demo.payload.ProjectResponse;
+import com.Jwt.demo.repository.ProjectRepository;
+import com.Jwt.demo.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Counts the SQL statements behind project reads, so a change that brings back one query
+ * per project (N+1) fails here instead of in production.
+ */
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:projects;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class ProjectServiceTests {
+
+	private static final int PROJECTS = 25;
+	private static final int ASSIGNEES_PER_PROJECT = 5;
+
+	@Autowired
+	private ProjectService projectService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private ProjectRepository projectRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	private final List<Long> userIds = new ArrayList<>();
+
+	@BeforeEach
+	void createProjects() {
+		projectRepository.deleteAll();
+		userIds.clear();
+		for (int i = 0; i < 10; i++) {
+			String username = "member" + i;
+			User user = userRepository.findByUsername(username)
+					.orElseGet(() -> userRepository.save(new User(username, username + "@example.com", "password")));
+			userIds.add(user.getId());
+		}
+		for (int i = 0; i < PROJECTS; i++) {
+			Set<Long> assignees = new HashSet<>();
+			for (int j = 0; j < ASSIGNEES_PER_PROJECT; j++) {
+				assignees.add(userIds.get((i + j) % userIds.size()));
+			}
+			projectService.create(request("Project " + i, assignees));
+		}
+	}
+
+	private static ProjectRequest request(String title, Set<Long> assignedUserIds) {
+		ProjectRequest request = new ProjectRequest();
+		request.setTitle(title);
+		request.setBudget(new BigDecimal("1000.00"));
+		request.setAssignedUserIds(assignedUserIds);
+		return request;
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+
+	@Test
+	void everyPageCostsTwoStatements() {
+		Statistics statistics = statistics();
+		Long after = null;
+		int pages = 0;
+		int projects = 0;
+		do {
+			ProjectPage page = projectService.findPage(after, 10);
+			for (ProjectResponse project : page.getItems()) {
+				assertEquals(ASSIGNEES_PER_PROJECT, project.getAssignees().size());
+			}
+			projects += page.getItems().size();
+			after = page.getNextCursor();
+			pages++;
+			assertEquals(2L * pages, statistics.getPrepareStatementCount(), "statements after page " + pages);
+		} while (after != null);
+		assertEquals(PROJECTS, projects);
+		assertEquals(3, pages);
+	}
+
+	@Test
+	void singleProjectIsOneStatement() {
+		Long id = projectService.findPage(null, 1).getItems().get(0).getId();
+		Statistics statistics = statistics();
+		assertEquals(ASSIGNEES_PER_PROJECT, projectService.findById(id).get().getAssignees().size());
+		assertEquals(1L, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void lazyAssigneesAreLoadedInBatches() {
+		Statistics statistics = statistics();
+		int assignments = transactionTemplate.execute(status -> {
+			int total = 0;
+			for (Project project : projectRepository.findAll()) {
+				total += project.getAssignedUsers().size();
+			}
+			return total;
+		});
+		assertEquals(PROJECTS * ASSIGNEES_PER_PROJECT, assignments);
+		// The projects, then all their assignee sets at once (@BatchSize covers the whole page)
+		assertEquals(2L, statistics.getPrepareStatementCount());
+	}
+
+	private void createProject(String title, String client, String startDate, String budget) {
+		ProjectRequest request = request(title, new HashSet<>(userIds.subList(0, 1)));
+		request.setClient(client);
+		request.setLocation("Berlin");
+		request.setStartDate(LocalDate.parse(startDate));
+		request.setBudget(new BigDecimal(budget));
+		projectService.create(request);
+	}
+
+	@Test
+	void searchesAndSumsBudgetsInTheDatabase() {
+		createProject("Acme 1", "Acme", "2024-01-10", "100.00");
+		createProject("Acme 2", "Acme", "2024-01-20", "200.00");
+		createProject("Acme 3", "Acme", "2024-03-05", "50.00");
+		createProject("Globex 1", "Globex", "2024-03-15", "1000.00");
+		ProjectFilter berlin = new ProjectFilter();
+		berlin.setLocation("Berlin");
+
+		ProjectFilter acmeInQ1 = new ProjectFilter();
+		acmeInQ1.setClient("Acme");
+		acmeInQ1.setFrom(LocalDate.parse("2024-01-15"));
+		acmeInQ1.setTo(LocalDate.parse("2024-03-31"));
+		Statistics statistics = statistics();
+		List<String> titles = projectService.search(acmeInQ1, null, 10).getItems().stream()
+				.map(ProjectResponse::getTitle).collect(Collectors.toList());
+		assertEquals(2L, statistics.getPrepareStatementCount());
+		assertEquals(2, titles.size());
+		assertTrue(titles.contains("Acme 2") && titles.contains("Acme 3"));
+
+		statistics = statistics();
+		List<BudgetSummary> byClient = projectService.budgetByClient(berlin);
+		assertEquals(1L, statistics.getPrepareStatementCount());
+		assertEquals(0L, statistics.getEntityLoadCount());
+		assertEquals(2, byClient.size());
+		assertEquals("Acme", byClient.get(0).getKey());
+		assertEquals(3, byClient.get(0).getProjects());
+		assertEquals(0, new BigDecimal("350.00").compareTo(byClient.get(0).getTotalBudget()));
+		assertEquals(new BigDecimal("116.67"), byClient.get(0).getAverageBudget());
+
+		List<BudgetSummary> byMonth = projectService.budgetByMonth(berlin);
+		assertEquals(2, byMonth.size());
+		assertEquals("2024-01", byMonth.get(0).getKey());
+		assertEquals(2, byMonth.get(0).getProjects());
+		assertEquals("2024-03", byMonth.get(1).getKey());
+		assertEquals(0, new BigDecimal("1050.00").compareTo(byMonth.get(1).getTotalBudget()));
+	}
+
+	private static AssignmentRequest assignment(Set<Long> projectIds, List<Long> userIds) {
+		AssignmentRequest request = new AssignmentRequest();
+		request.setProjectIds(projectIds);
+		request.setUserIds(new HashSet<>(userIds));
+		return request;
+	}
+
+	@Test
+	void bulkAssignmentUsesAFixedNumberOfStatements() {
+		Long first = projectService.create(request("Team A", new HashSet<>(userIds.subList(0, 1)))).getId();
+		Long second = projectService.create(request("Team B", new HashSet<>())).getId();
+		Set<Long> projects = new HashSet<>(Arrays.asList(first, second));
+
+		Statistics statistics = statistics();
+		AssignmentResult added = projectService.assign(assignment(projects, userIds));
+		assertEquals(4L, statistics.getPrepareStatementCount());
+		assertEquals(20, added.getRequestedPairs());
+		assertEquals(19, added.getChangedPairs());
+		assertEquals(userIds.subList(1, 10), added.getChanges().get(0).getUserIds());
+		assertEquals(10, projectService.findById(first).get().getAssignees().size());
+		assertEquals(10, projectService.findById(second).get().getAssignees().size());
+
+		statistics = statistics();
+		assertEquals(0, projectService.assign(assignment(projects, userIds)).getChangedPairs());
+		assertEquals(3L, statistics.getPrepareStatementCount());
+
+		statistics = statistics();
+		AssignmentResult removed = projectService.unassign(assignment(projects, userIds.subList(0, 5)));
+		assertEquals(3L, statistics.getPrepareStatementCount());
+		assertEquals(10, removed.getChangedPairs());
+		assertEquals(5, projectService.findById(first).get().getAssignees().size());
+
+		assertThrows(UnknownUsersException.class,
+				() -> projectService.assign(assignment(projects, Arrays.asList(userIds.get(0), -1L))));
+	}
+
+	@Test
+	void deletingAUserRemovesTheirAssignments() {
+		User leaving = userRepository.save(new User("leaving", "leaving@example.com", "password"));
+		Set<Long> assignees = new HashSet<>(userIds.subList(0, 2));
+		assignees.add(leaving.getId());
+		Long projectId = projectService.create(request("Short-lived", assignees)).getId();
+
+		userService.deleteById(leaving.getId());
+
+		ProjectResponse project = projectService.findById(projectId).get();
+		assertEquals(2, project.getAssignees().size());
+		assertTrue(project.getAssignees().stream().noneMatch(a -> a.getId().equals(leaving.getId())));
+		assertFalse(userRepository.existsByUsername("leaving"));
+		assertTrue(projectService.delete(projectId));
+		assertNull(projectService.findById(projectId).orElse(null));
+	}
+}
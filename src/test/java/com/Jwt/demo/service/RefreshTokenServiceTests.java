@@ -0,0 +1,96 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.payload.JwtResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:refresh;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class RefreshTokenServiceTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private RefreshTokenService refreshTokenService;
+
+	private JwtResponse register(String username) {
+		userService.registerUser(username, username + "@example.com", "secret12", null);
+		return login(username);
+	}
+
+	private JwtResponse login(String username) {
+		return authService.login(username, "secret12");
+	}
+
+	private String refreshFailure(String refreshToken) {
+		return assertThrows(InvalidRefreshTokenException.class, () -> authService.refresh(refreshToken)).getMessage();
+	}
+
+	@Test
+	void refreshReturnsANewPairAndTheOldTokenStopsWorking() throws Exception {
+		JwtResponse first = register("ivan");
+		JwtResponse second = authService.refresh(first.getRefreshToken());
+
+		assertNotEquals(first.getRefreshToken(), second.getRefreshToken());
+		mvc.perform(get("/api/me").header("Authorization", "Bearer " + second.getToken())).andExpect(status().isOk());
+		assertEquals("Refresh token already used", refreshFailure(first.getRefreshToken()));
+	}
+
+	@Test
+	void replayingARotatedTokenRevokesTheWholeFamily() {
+		JwtResponse first = register("judy");
+		JwtResponse otherDevice = login("judy");
+		JwtResponse rotated = authService.refresh(first.getRefreshToken());
+
+		assertEquals("Refresh token already used", refreshFailure(first.getRefreshToken()));
+		// The thief and the owner are indistinguishable now: every refresh token of the user is gone
+		assertEquals("Refresh token already used", refreshFailure(rotated.getRefreshToken()));
+		assertEquals("Refresh token already used", refreshFailure(otherDevice.getRefreshToken()));
+	}
+
+	@Test
+	void logoutWithARefreshTokenRevokesIt() throws Exception {
+		JwtResponse session = register("mallory");
+		mvc.perform(post("/api/auth/logout")
+						.header("Authorization", "Bearer " + session.getToken())
+						.param("refreshToken", session.getRefreshToken()))
+				.andExpect(status().isOk());
+
+		refreshFailure(session.getRefreshToken());
+	}
+
+	@Test
+	void expiredTokensAreRejected() {
+		RefreshTokenService target = AopTestUtils.getTargetObject(refreshTokenService);
+		Object expirationMs = ReflectionTestUtils.getField(target, "refreshExpirationMs");
+		String expired;
+		try {
+			ReflectionTestUtils.setField(target, "refreshExpirationMs", -1L);
+			expired = register("niaj").getRefreshToken();
+		} finally {
+			ReflectionTestUtils.setField(target, "refreshExpirationMs", expirationMs);
+		}
+
+		assertEquals("Refresh token expired", refreshFailure(expired));
+		assertEquals("Unknown refresh token", refreshFailure("not-a-refresh-token"));
+	}
+}
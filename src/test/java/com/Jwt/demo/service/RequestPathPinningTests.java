@@ -0,0 +1,109 @@
+package com.Jwt.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.sql.DataSource;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MonitorInfo;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A virtual thread that blocks while holding a monitor (synchronized, including the bin locks of
+ * ConcurrentHashMap.computeIfAbsent) pins its carrier thread. This runs authenticated requests through
+ * JwtAuthenticationFilter with empty caches and fails if any database access happens while the
+ * request thread holds a monitor. Works on any JDK; on Java 21 -Djdk.tracePinnedThreads=short shows the same.
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:pinning;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+@AutoConfigureMockMvc
+class RequestPathPinningTests {
+
+	private static final List<String> violations = new CopyOnWriteArrayList<>();
+	private static final AtomicInteger checkedConnections = new AtomicInteger();
+	private static volatile Thread watched;
+
+	@TestConfiguration
+	static class MonitorCheck {
+		@Bean
+		static BeanPostProcessor connectionMonitorCheck() {
+			return new BeanPostProcessor() {
+				@Override
+				public Object postProcessAfterInitialization(Object bean, String beanName) {
+					if (!(bean instanceof DataSource)) {
+						return bean;
+					}
+					return new DelegatingDataSource((DataSource) bean) {
+						@Override
+						public Connection getConnection() throws SQLException {
+							checkNoMonitorHeld();
+							return super.getConnection();
+						}
+					};
+				}
+			};
+		}
+	}
+
+	private static void checkNoMonitorHeld() {
+		if (Thread.currentThread() != watched) {
+			return;
+		}
+		checkedConnections.incrementAndGet();
+		MonitorInfo[] held = ManagementFactory.getThreadMXBean()
+				.getThreadInfo(new long[]{Thread.currentThread().getId()}, true, false)[0].getLockedMonitors();
+		for (MonitorInfo monitor : held) {
+			violations.add(monitor.getClassName() + " locked at " + monitor.getLockedStackFrame());
+		}
+	}
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private JwtUtil jwtUtil;
+
+	@Autowired
+	private UserCache userCache;
+
+	@Autowired
+	private TokenVersionService tokenVersionService;
+
+	@Test
+	void jwtFilterPathNeverQueriesTheDatabaseWhileHoldingAMonitor() throws Exception {
+		AuthenticatedUser admin = userCache.findByUsername("admin")
+				.map(user -> new AuthenticatedUser(user.getId(), user.getUsername(), "", user.getTokenVersion(), true))
+				.orElseThrow(IllegalStateException::new);
+		String token = jwtUtil.generateToken(admin);
+		// Issued without the user claims: the filter has to load the user
+		String bareToken = jwtUtil.generateToken("admin");
+
+		userCache.clear();
+		tokenVersionService.clear();
+		watched = Thread.currentThread();
+		try {
+			mvc.perform(get("/api/me").header("Authorization", "Bearer " + token)).andExpect(status().isOk());
+			mvc.perform(get("/api/me").header("Authorization", "Bearer " + bareToken)).andExpect(status().isOk());
+		} finally {
+			watched = null;
+		}
+
+		assertTrue(checkedConnections.get() > 0, "no database access was observed");
+		assertEquals(0, violations.size(), violations.toString());
+	}
+}
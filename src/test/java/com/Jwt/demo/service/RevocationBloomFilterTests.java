@@ -0,0 +1,35 @@
+package com.Jwt.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RevocationBloomFilterTests {
+
+	@Test
+	void neverReportsFalseNegatives() {
+		RevocationBloomFilter filter = new RevocationBloomFilter(10000, 0.01);
+		for (int i = 0; i < 10000; i++) {
+			filter.put(TokenDigests.sha256("revoked-" + i));
+		}
+		for (int i = 0; i < 10000; i++) {
+			assertTrue(filter.mightContain(TokenDigests.sha256("revoked-" + i)));
+		}
+	}
+
+	@Test
+	void falsePositiveRateStaysNearTarget() {
+		RevocationBloomFilter filter = new RevocationBloomFilter(10000, 0.01);
+		for (int i = 0; i < 10000; i++) {
+			filter.put(TokenDigests.sha256("revoked-" + i));
+		}
+		int falsePositives = 0;
+		int probes = 100000;
+		for (int i = 0; i < probes; i++) {
+			if (filter.mightContain(TokenDigests.sha256("live-" + i))) {
+				falsePositives++;
+			}
+		}
+		assertTrue(falsePositives < probes * 0.02, "false positives: " + falsePositives);
+	}
+}
@@ -0,0 +1,42 @@
+package com.Jwt.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.metrics.AutoConfigureMetrics;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:security;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"management.endpoints.web.exposure.include=health,prometheus"
+})
+@AutoConfigureMockMvc
+@AutoConfigureMetrics
+class SecurityConfigTests {
+
+	@Autowired
+	private MockMvc mvc;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private UserService userService;
+
+	@Test
+	void onlyHealthIsPublicOnTheApplicationPort() throws Exception {
+		mvc.perform(get("/actuator/health")).andExpect(status().isOk());
+		mvc.perform(get("/actuator/prometheus")).andExpect(status().isForbidden());
+
+		userService.registerUser("olivia", "olivia@example.com", "secret12", null);
+		String user = authService.login("olivia", "secret12").getToken();
+		mvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + user)).andExpect(status().isForbidden());
+
+		String admin = authService.login("admin", "admin123").getToken();
+		mvc.perform(get("/actuator/prometheus").header("Authorization", "Bearer " + admin)).andExpect(status().isOk());
+	}
+}
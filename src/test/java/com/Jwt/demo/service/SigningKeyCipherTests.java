@@ -0,0 +1,41 @@
+package com.Jwt.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.security.GeneralSecurityException;
+import java.security.KeyPairGenerator;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SigningKeyCipherTests {
+
+	private static final String KEK = "dGVzdC1vbmx5LWtleS1lbmNyeXB0aW9uLWtleSEhISE=";
+
+	@Test
+	void encryptsPrivateKeysBoundToTheirKid() throws Exception {
+		KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+		generator.initialize(256);
+		byte[] pkcs8 = generator.generateKeyPair().getPrivate().getEncoded();
+		SigningKeyCipher cipher = SigningKeyCipher.of(KEK, false);
+
+		byte[] stored = cipher.seal("kid-1", pkcs8);
+		assertEquals(1, stored[0]);
+		assertFalse(new String(stored, "ISO-8859-1").contains(new String(pkcs8, "ISO-8859-1")));
+		assertArrayEquals(pkcs8, cipher.open("kid-1", stored));
+		// Copied to another row, or opened with another KEK: refused
+		assertThrows(GeneralSecurityException.class, () -> cipher.open("kid-2", stored));
+		assertThrows(GeneralSecurityException.class,
+				() -> SigningKeyCipher.of("b3RoZXIta2V5LW90aGVyLWtleS1vdGhlci1rZXkhISE=", false).open("kid-1", stored));
+		// Rows from before encryption was enabled are still readable
+		assertArrayEquals(pkcs8, cipher.open("kid-1", pkcs8));
+	}
+
+	@Test
+	void refusesToStartWithoutKekUnlessPlaintextIsAllowed() {
+		assertThrows(IllegalStateException.class, () -> SigningKeyCipher.of("", false));
+		assertFalse(SigningKeyCipher.of("", true).isEncrypting());
+	}
+}
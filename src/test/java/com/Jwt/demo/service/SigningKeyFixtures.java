@@ -0,0 +1,51 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.SigningKey;
+import com.Jwt.demo.repository.SigningKeyRepository;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.withSettings;
+
+/**
+ * SigningKeyService backed by an in-memory list instead of the signing_keys table.
+ * Shared by the unit tests and the JMH benchmarks (src/jmh/java).
+ */
+final class SigningKeyFixtures {
+
+	static final String KEK = "dGVzdC1vbmx5LWtleS1lbmNyeXB0aW9uLWtleSEhISE=";
+
+	private SigningKeyFixtures() {
+	}
+
+	static SigningKeyService inMemory() {
+		List<SigningKey> stored = new ArrayList<>();
+		// Stub only: benchmarks call it millions of times, so no invocations are recorded
+		SigningKeyRepository repository = mock(SigningKeyRepository.class, withSettings().stubOnly());
+		when(repository.findByCreatedAtGreaterThanOrderByCreatedAtDesc(anyLong())).thenAnswer(i -> new ArrayList<>(stored));
+		when(repository.save(any(SigningKey.class))).thenAnswer(i -> {
+			stored.add(0, i.getArgument(0));
+			return i.getArgument(0);
+		});
+		SigningKeyService keys = new SigningKeyService();
+		ReflectionTestUtils.setField(keys, "signingKeyRepository", repository);
+		ReflectionTestUtils.setField(keys, "transactionTemplate", new TransactionTemplate() {
+			@Override
+			public <T> T execute(TransactionCallback<T> action) {
+				return action.doInTransaction(new SimpleTransactionStatus());
+			}
+		});
+		ReflectionTestUtils.setField(keys, "kek", KEK);
+		keys.init();
+		return keys;
+	}
+}
@@ -0,0 +1,63 @@
+package com.Jwt.demo.service;
+
+import io.jsonwebtoken.Jwts;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TokenBlacklistServiceTests {
+
+	private final JwtUtil jwtUtil = mock(JwtUtil.class);
+
+	private TokenBlacklistService blacklist() {
+		TokenBlacklistService service = new TokenBlacklistService();
+		ReflectionTestUtils.setField(service, "jwtUtil", jwtUtil);
+		ReflectionTestUtils.setField(service, "revocationBackend", new LocalRevocationBackend());
+		service.init();
+		return service;
+	}
+
+	private void expiresIn(String token, long ms) {
+		Date expiration = new Date(System.currentTimeMillis() + ms);
+		when(jwtUtil.parse(token)).thenReturn(ParsedToken.valid(Jwts.claims().setSubject("alice").setExpiration(expiration)));
+	}
+
+	@Test
+	void purgeDropsExpiredEntriesAndKeepsLiveOnes() throws InterruptedException {
+		TokenBlacklistService blacklist = blacklist();
+		expiresIn("short", 100);
+		expiresIn("long", 60000);
+		blacklist.blacklistToken("short");
+		blacklist.blacklistToken("long");
+		assertEquals(2, blacklist.size());
+
+		Thread.sleep(200);
+		blacklist.purgeExpired();
+
+		assertEquals(1, blacklist.size());
+		assertEquals(1, blacklist.getEvictedCount());
+		assertFalse(blacklist.isTokenBlacklisted("short"));
+		// Still revoked after the filter rebuild
+		assertTrue(blacklist.isTokenBlacklisted("long"));
+	}
+
+	@Test
+	void purgeWithNothingExpiredKeepsEverything() {
+		TokenBlacklistService blacklist = blacklist();
+		expiresIn("live", 60000);
+		blacklist.blacklistToken("live");
+
+		blacklist.purgeExpired();
+
+		assertEquals(1, blacklist.size());
+		assertEquals(0, blacklist.getEvictedCount());
+		assertTrue(blacklist.isTokenBlacklisted("live"));
+	}
+}
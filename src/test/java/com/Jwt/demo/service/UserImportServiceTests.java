@@ -0,0 +1,129 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.User;
+import com.Jwt.demo.payload.BulkImportResult;
+import com.Jwt.demo.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:userimport;MODE=PostgreSQL;DB_CLOSE_DELAY=-1")
+class UserImportServiceTests {
+
+	@Autowired
+	private UserImportService userImportService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PasswordEncoder passwordEncoder;
+
+	private static String line(String username, String email) {
+		return "{\"username\":\"" + username + "\",\"email\":\"" + email + "\",\"password\":\"secret12\"}\n";
+	}
+
+	private BulkImportResult importUsers(String... lines) throws IOException {
+		return userImportService.importUsers(new StringReader(String.join("", lines)));
+	}
+
+	private static List<String> errors(BulkImportResult result) {
+		return result.getErrors().stream()
+				.map(error -> error.getLine() + " " + error.getUsername() + ": " + error.getMessage())
+				.collect(Collectors.toList());
+	}
+
+	@Test
+	void validRowsAreInsertedAcrossChunks() throws IOException {
+		ReflectionTestUtils.setField(userImportService, "chunkSize", 2);
+		try {
+			BulkImportResult result = importUsers(line("imp1", "imp1@example.com"), line("imp2", "imp2@example.com"),
+					"\n", line("imp3", "imp3@example.com"));
+			assertEquals(3, result.getReceived());
+			assertEquals(3, result.getImported());
+			assertTrue(result.getErrors().isEmpty(), errors(result).toString());
+		} finally {
+			ReflectionTestUtils.setField(userImportService, "chunkSize", 1000);
+		}
+		User imported = userRepository.findByUsername("imp3").get();
+		assertEquals("imp3@example.com", imported.getEmail());
+		assertTrue(passwordEncoder.matches("secret12", imported.getPassword()));
+	}
+
+	@Test
+	void duplicatesAndBadLinesAreReportedByLine() throws IOException {
+		userImportService.importUsers(new StringReader(line("dup1", "dup1@example.com")));
+
+		BulkImportResult result = importUsers(
+				line("dup2", "dup2@example.com"),
+				line("dup2", "other@example.com"),
+				line("dup3", "dup2@example.com"),
+				line("dup1", "fresh@example.com"),
+				line("dup4", "dup1@example.com"),
+				"{not json\n",
+				"{\"username\":\"x\",\"password\":\"secret12\"}\n");
+
+		assertEquals(7, result.getReceived());
+		assertEquals(1, result.getImported());
+		assertEquals(6, result.getErrors().size(), errors(result).toString());
+		List<String> errors = errors(result);
+		assertEquals("2 dup2: Duplicate username in upload", errors.get(0));
+		assertEquals("3 dup3: Duplicate email in upload", errors.get(1));
+		assertEquals("4 dup1: Username already taken", errors.get(2));
+		assertEquals("5 dup4: Email already in use", errors.get(3));
+		assertTrue(errors.get(4).startsWith("6 null: Invalid JSON"), errors.get(4));
+		assertTrue(errors.get(5).startsWith("7 x: username "), errors.get(5));
+	}
+
+	@Test
+	void aFailedBatchFallsBackToSingleRowsWithoutLeakingDatabaseErrors() throws IOException {
+		// Longer than the email column: passes validation, fails the insert
+		String tooLong = String.join("", Collections.nCopies(130, "e")) + "@example.com";
+		BulkImportResult result = importUsers(line("row1", "row1@example.com"), line("row2", tooLong),
+				line("row3", "row3@example.com"));
+
+		assertEquals(2, result.getImported());
+		assertEquals(Collections.singletonList("2 row2: Could not insert user"), errors(result));
+		assertTrue(userRepository.existsByUsername("row1"));
+		assertTrue(userRepository.existsByUsername("row3"));
+		assertFalse(userRepository.existsByUsername("row2"));
+	}
+
+	@Test
+	void clashesMissedByThePreCheckAreNamed() throws IOException {
+		importUsers(line("race1", "race1@example.com"), line("race2", "race2@example.com"));
+		// As if both were registered between the pre-check and the batch insert
+		UserRepository racing = mock(UserRepository.class, delegatesTo(userRepository));
+		doReturn(Collections.emptyList()).when(racing).findExistingUsernames(anyCollection());
+		doReturn(Collections.emptyList()).when(racing).findExistingEmails(anyCollection());
+		ReflectionTestUtils.setField(userImportService, "userRepository", racing);
+		BulkImportResult result;
+		try {
+			result = importUsers(line("race1", "new1@example.com"), line("race3", "race2@example.com"),
+					line("race4", "race4@example.com"));
+		} finally {
+			ReflectionTestUtils.setField(userImportService, "userRepository", userRepository);
+		}
+
+		assertEquals(1, result.getImported());
+		List<String> errors = errors(result);
+		assertEquals("1 race1: Username already taken", errors.get(0));
+		assertEquals("2 race3: Email already in use", errors.get(1));
+	}
+}
@@ -0,0 +1,214 @@
+package com.Jwt.demo.service;
+
+import com.Jwt.demo.Model.User;
+import com.Jwt.demo.repository.UserRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.EntityManagerFactory;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = {
+		"spring.datasource.url=jdbc:h2:mem:users;MODE=PostgreSQL;DB_CLOSE_DELAY=-1",
+		"spring.jpa.properties.hibernate.generate_statistics=true"
+})
+class UserServiceTests {
+
+	@Autowired
+	private UserService userService;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TakenUsernameCache takenUsernames;
+
+	@Autowired
+	private UserCache userCache;
+
+	@Autowired
+	private CustomUserDetailsService userDetailsService;
+
+	@Autowired
+	private TokenVersionService tokenVersionService;
+
+	@Autowired
+	private AuthService authService;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+
+	@Test
+	void registrationIsOneInsertAndDuplicatesAreNamed() {
+		Statistics statistics = statistics();
+		userService.registerUser("carol", "carol@example.com", "secret12", null);
+		assertEquals(1L, statistics.getPrepareStatementCount());
+
+		// Known taken: refused before hashing or touching the database
+		statistics = statistics();
+		assertThrows(UsernameTakenException.class,
+				() -> userService.registerUser("carol", "other@example.com", "secret12", null));
+		assertEquals(0L, statistics.getPrepareStatementCount());
+
+		// Not in the cache: the unique constraint decides, and its name says which field clashed
+		takenUsernames.release("carol");
+		statistics = statistics();
+		assertThrows(UsernameTakenException.class,
+				() -> userService.registerUser("carol", "other@example.com", "secret12", null));
+		assertEquals(1L, statistics.getPrepareStatementCount());
+		assertThrows(EmailInUseException.class,
+				() -> userService.registerUser("dave", "carol@example.com", "secret12", null));
+	}
+
+	@Test
+	void everyUpdateChangesTheVersion() {
+		User frank = userService.registerUser("frank", "frank@example.com", "secret12", null);
+		assertEquals(0L, userService.findVersion(frank.getId()).get());
+
+		userService.updateUserManageFlag(frank.getId(), true);
+		assertEquals(1L, userService.findVersion(frank.getId()).get());
+
+		// The re-hash on login is a bulk update, which bumps the version itself
+		userDetailsService.updatePassword(userDetailsService.loadUserByUsername("frank"), "rehashed");
+		userCache.clear();
+		Statistics statistics = statistics();
+		assertEquals(2L, userService.findVersion(frank.getId()).get());
+		assertEquals(1L, statistics.getPrepareStatementCount());
+		assertEquals(0L, statistics.getEntityLoadCount());
+	}
+
+	@Test
+	void loginRehashesOnlyPasswordsStoredWithALowerCost() {
+		userService.registerUser("ivy", "ivy@example.com", "secret12", null);
+		userService.registerUser("ike", "ike@example.com", "secret12", null);
+		// As if stored before the cost was raised, and by an instance with a higher cost
+		userDetailsService.updatePassword(userDetailsService.loadUserByUsername("ivy"),
+				new BCryptPasswordEncoder(4).encode("secret12"));
+		String stronger = new BCryptPasswordEncoder(6).encode("secret12");
+		userDetailsService.updatePassword(userDetailsService.loadUserByUsername("ike"), stronger);
+		long ikeVersion = userService.findVersion(userRepository.findByUsername("ike").get().getId()).get();
+
+		authService.login("ivy", "secret12");
+		authService.login("ike", "secret12");
+
+		// The suite runs with cost 5 (app.security.bcrypt.strength)
+		String stored = userRepository.findByUsername("ivy").get().getPassword();
+		assertTrue(stored.startsWith("$2a$05$"), stored);
+		User ike = userRepository.findByUsername("ike").get();
+		assertEquals(stronger, ike.getPassword());
+		assertEquals(ikeVersion, ike.getVersion());
+		authService.login("ivy", "secret12");
+	}
+
+	@Test
+	void tokenVersionIsPublishedOnlyAfterCommit() {
+		User heidi = userService.registerUser("heidi", "heidi@example.com", "secret12", null);
+		assertTrue(tokenVersionService.isCurrent(heidi.getId(), 0));
+
+		TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+		transaction.executeWithoutResult(status -> {
+			userService.revokeAllSessions(heidi.getId());
+			// Not committed yet: the tokens still in use stay valid
+			assertTrue(tokenVersionService.isCurrent(heidi.getId(), 0));
+			status.setRollbackOnly();
+		});
+		assertTrue(tokenVersionService.isCurrent(heidi.getId(), 0));
+
+		userService.revokeAllSessions(heidi.getId());
+		assertFalse(tokenVersionService.isCurrent(heidi.getId(), 0));
+		assertTrue(tokenVersionService.isCurrent(heidi.getId(), 1));
+	}
+
+	@Test
+	void theUserCacheNeverHandsOutItsOwnInstance() {
+		User judy = userService.registerUser("judyc", "judyc@example.com", "secret12", null);
+		User first = userCache.findById(judy.getId()).get();
+		User second = userCache.findById(judy.getId()).get();
+		assertNotSame(first, second);
+
+		second.setCanManageUsers(true);
+		second.setUsername("changed");
+		User third = userCache.findByUsername("judyc").get();
+		assertFalse(third.isCanManageUsers());
+		assertEquals("judyc", third.getUsername());
+		assertEquals(judy.getId(), third.getId());
+		assertNotSame(third, userCache.getIfPresent(judy.getId()).get());
+	}
+
+	@Test
+	void aDeletedUsernameIsFreedOnlyWhenTheDeleteCommits() {
+		User kate = userService.registerUser("kate", "kate@example.com", "secret12", null);
+		assertTrue(takenUsernames.isTaken("kate"));
+
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			userService.deleteById(kate.getId());
+			assertTrue(takenUsernames.isTaken("kate"));
+			status.setRollbackOnly();
+		});
+		assertTrue(takenUsernames.isTaken("kate"));
+		assertTrue(userRepository.existsByUsername("kate"));
+
+		userService.deleteById(kate.getId());
+		assertFalse(takenUsernames.isTaken("kate"));
+		assertFalse(userRepository.existsByUsername("kate"));
+	}
+
+	@Test
+	void concurrentSignupsForOneNameCreateOneUser() throws Exception {
+		int attempts = 8;
+		ExecutorService pool = Executors.newFixedThreadPool(attempts);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> results = new ArrayList<>();
+		try {
+			for (int i = 0; i < attempts; i++) {
+				String email = "erin" + i + "@example.com";
+				results.add(pool.submit((Callable<Object>) () -> {
+					start.await();
+					return userService.registerUser("erin", email, "secret12", null);
+				}));
+			}
+			start.countDown();
+			int created = 0;
+			for (Future<?> result : results) {
+				try {
+					result.get();
+					created++;
+				} catch (ExecutionException e) {
+					assertTrue(e.getCause() instanceof UsernameTakenException, e.getCause().toString());
+				}
+			}
+			assertEquals(1, created);
+			assertTrue(userRepository.existsByUsername("erin"));
+		} finally {
+			pool.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,88 @@
+package com.Jwt.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class VerifiedTokenCacheTests {
+
+	private final AuthenticatedUser alice = new AuthenticatedUser(1L, "alice", "", 0, false);
+
+	private static VerifiedTokenCache cache(int maxSize, long maxTtlMs) {
+		VerifiedTokenCache cache = new VerifiedTokenCache();
+		ReflectionTestUtils.setField(cache, "maxSize", maxSize);
+		ReflectionTestUtils.setField(cache, "maxTtlMs", maxTtlMs);
+		return cache;
+	}
+
+	private static Date inMs(long ms) {
+		return new Date(System.currentTimeMillis() + ms);
+	}
+
+	@Test
+	void unknownTokensMiss() {
+		VerifiedTokenCache cache = cache(10, 60000);
+		cache.put("known", alice, inMs(60000));
+
+		assertSame(alice, cache.get("known"));
+		assertNull(cache.get("unknown"));
+	}
+
+	@Test
+	void entriesExpireAtTheEarlierOfTokenExpiryAndMaxTtl() throws InterruptedException {
+		VerifiedTokenCache cache = cache(10, 100);
+		cache.put("long-lived", alice, inMs(60000));
+		VerifiedTokenCache generous = cache(10, 60000);
+		generous.put("short-lived", alice, inMs(100));
+		generous.put("already-expired", alice, inMs(-1));
+
+		assertNotNull(cache.get("long-lived"));
+		assertNotNull(generous.get("short-lived"));
+		assertNull(generous.get("already-expired"));
+
+		Thread.sleep(200);
+		// Capped by max-ttl even though the token itself is still valid
+		assertNull(cache.get("long-lived"));
+		// The token expired before max-ttl
+		assertNull(generous.get("short-lived"));
+		assertEquals(0, cache.size());
+		assertEquals(0, generous.size());
+	}
+
+	@Test
+	void aFullCacheDropsExpiredEntriesFirst() throws InterruptedException {
+		VerifiedTokenCache cache = cache(10, 60000);
+		for (int i = 0; i < 3; i++) {
+			cache.put("expiring-" + i, alice, inMs(100));
+		}
+		for (int i = 0; i < 7; i++) {
+			cache.put("live-" + i, alice, inMs(60000));
+		}
+		Thread.sleep(200);
+
+		cache.put("live-7", alice, inMs(60000));
+		assertEquals(8, cache.size());
+		for (int i = 0; i < 8; i++) {
+			assertNotNull(cache.get("live-" + i));
+		}
+	}
+
+	@Test
+	void aFullCacheWithoutExpiredEntriesShrinksToNinetyPercent() {
+		VerifiedTokenCache cache = cache(20, 60000);
+		for (int i = 0; i < 20; i++) {
+			cache.put("live-" + i, alice, inMs(60000));
+		}
+
+		// Arbitrary entries go until 18 remain, then the new one is added
+		cache.put("newest", alice, inMs(60000));
+		assertEquals(19, cache.size());
+		assertNotNull(cache.get("newest"));
+	}
+}
@@ -0,0 +1,42 @@
+package com.Jwt.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadsConfigTests {
+
+	private static boolean jdkHasVirtualThreads() {
+		try {
+			Thread.class.getMethod("ofVirtual");
+			return true;
+		} catch (NoSuchMethodException e) {
+			return false;
+		}
+	}
+
+	@Test
+	void runsTasksOnNamedVirtualThreadsOrFailsClearly() throws Exception {
+		if (!jdkHasVirtualThreads()) {
+			IllegalStateException e = assertThrows(IllegalStateException.class,
+					() -> VirtualThreadsConfig.newVirtualThreadPerTaskExecutor("test-vt-"));
+			assertTrue(e.getMessage().contains("Java 21"));
+			return;
+		}
+		ExecutorService executor = VirtualThreadsConfig.newVirtualThreadPerTaskExecutor("test-vt-");
+		try {
+			String name = executor.submit(() -> Thread.currentThread().getName()).get(5, TimeUnit.SECONDS);
+			boolean virtual = executor.submit(() -> (Boolean) Thread.class.getMethod("isVirtual").invoke(Thread.currentThread()))
+					.get(5, TimeUnit.SECONDS);
+			assertTrue(name.startsWith("test-vt-"));
+			assertEquals(true, virtual);
+		} finally {
+			executor.shutdown();
+		}
+	}
+}